@@ -0,0 +1,119 @@
+package com.foodplatform.backend.config;
+
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.model_temp.ImageBlob;
+import com.foodplatform.backend.model_temp.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Creates the indexes declared on the entities (@Indexed, @CompoundIndex, @GeoSpatialIndexed)
+ * at startup; Spring Boot's auto-index-creation is off, so nothing else does. Indexes are
+ * matched by their keys, not their names, so ones created by hand or by older versions of the
+ * app count as present.
+ *
+ * Also reports what it finds: indexes in the database that no entity declares, and indexes
+ * that haven't been used since the server started ($indexStats). Both are only logged; dropping
+ * an index is left to a person.
+ */
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    static final List<Class<?>> ENTITIES = List.of(Donor.class, User.class, ImageBlob.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // In the background so a slow or unreachable database doesn't hold up startup
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        for (Class<?> entity : ENTITIES) {
+            try {
+                List<String> created = ensureIndexes(entity);
+                if (!created.isEmpty()) {
+                    log.info("Created indexes on {}: {}", collection(entity), created);
+                }
+                reportUnused(entity);
+            } catch (RuntimeException e) {
+                log.warn("Could not check the indexes of {}: {}", collection(entity), e.getMessage());
+            }
+        }
+    }
+
+    /** Creates the declared indexes the collection doesn't have; returns their key patterns. */
+    public List<String> ensureIndexes(Class<?> entity) {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        IndexOperations indexOps = mongoTemplate.indexOps(entity);
+
+        // key pattern -> name, for what the database has
+        Map<String, String> existing = new HashMap<>();
+        for (Document index : mongoTemplate.getCollection(collection(entity)).listIndexes()) {
+            existing.put(keyPattern(index.get("key", Document.class)), index.getString("name"));
+        }
+
+        List<String> created = new ArrayList<>();
+        for (IndexDefinition declared : resolver.resolveIndexFor(entity)) {
+            String keys = keyPattern(declared.getIndexKeys());
+            if (existing.remove(keys) == null) {
+                indexOps.createIndex(declared);
+                created.add(keys);
+            }
+        }
+
+        existing.values().remove("_id_");
+        if (!existing.isEmpty()) {
+            log.info("Indexes on {} that no entity declares: {}", collection(entity), existing.values());
+        }
+        return created;
+    }
+
+    private void reportUnused(Class<?> entity) {
+        List<String> unused = new ArrayList<>();
+        for (Document stats : mongoTemplate.getCollection(collection(entity))
+                .aggregate(List.of(new Document("$indexStats", new Document())))) {
+            Document accesses = stats.get("accesses", Document.class);
+            Number ops = accesses != null ? accesses.get("ops", Number.class) : null;
+            if (ops != null && ops.longValue() == 0 && !"_id_".equals(stats.getString("name"))) {
+                unused.add(stats.getString("name"));
+            }
+        }
+        if (!unused.isEmpty()) {
+            log.info("Indexes on {} not used since the server started: {}", collection(entity), unused);
+        }
+    }
+
+    // "field:1,other:-1" in key order; the server may send 1 back as 1.0
+    static String keyPattern(Document keys) {
+        StringJoiner pattern = new StringJoiner(",");
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            Object direction = key.getValue() instanceof Number n ? n.intValue() : key.getValue();
+            pattern.add(key.getKey() + ":" + direction);
+        }
+        return pattern.toString();
+    }
+
+    private String collection(Class<?> entity) {
+        return mongoTemplate.getCollectionName(entity);
+    }
+}
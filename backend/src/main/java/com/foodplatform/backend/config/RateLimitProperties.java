@@ -0,0 +1,45 @@
+package com.foodplatform.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * app.rate-limit.*: per-route request limits, enforced by the RateLimiter.
+ *
+ * Each rule is a token bucket: a client may send {@code capacity} requests at once, and gets
+ * {@code refillTokens} more every {@code refillPeriod}. A request counts against the first rule
+ * (in the order of the properties) whose path pattern and method match it.
+ *
+ * @param maxKeys buckets kept in memory; clients beyond that start with a full bucket again
+ */
+@ConfigurationProperties("app.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("100000") long maxKeys,
+                                  Map<String, Rule> rules) {
+
+    /** What a bucket belongs to: the client's IP address, or the user when signed in. */
+    public enum KeyType { IP, USER }
+
+    /**
+     * @param path   Ant-style pattern, like /api/donations/**
+     * @param method null for any
+     */
+    public record Rule(String path,
+                       String method,
+                       int capacity,
+                       Integer refillTokens,
+                       @DefaultValue("1m") Duration refillPeriod,
+                       @DefaultValue("IP") KeyType key) {
+
+        public int tokensPerPeriod() {
+            return refillTokens != null ? refillTokens : capacity;
+        }
+    }
+
+    public RateLimitProperties {
+        rules = rules == null ? Map.of() : rules;
+    }
+}
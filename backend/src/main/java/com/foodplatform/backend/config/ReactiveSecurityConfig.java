@@ -0,0 +1,105 @@
+package com.foodplatform.backend.config;
+
+import com.foodplatform.backend.security.BoundedPasswordEncoder;
+import com.foodplatform.backend.security.CustomUserDetailsService;
+import com.foodplatform.backend.security.JwtAuthenticationWebFilter;
+import com.foodplatform.backend.security.JwtUtil;
+import com.foodplatform.backend.security.RateLimitWebFilter;
+import com.foodplatform.backend.security.RateLimiter;
+import com.foodplatform.backend.security.TokenDenyList;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.List;
+
+/**
+ * Security for the "reactive" profile: the same rules, CORS and JWT handling as SecurityConfig,
+ * expressed for WebFlux.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    public ReactiveSecurityConfig(CustomUserDetailsService userDetailsService,
+                                  BoundedPasswordEncoder passwordEncoder) {
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtUtil jwtUtil,
+                                                         TokenDenyList tokenDenyList,
+                                                         RateLimiter rateLimiter,
+                                                         @Value("${app.security.jwt.stateless:false}") boolean stateless) {
+        return http
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                // Stateless: nothing is kept between requests
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        .pathMatchers(HttpMethod.POST, "/auth/**").permitAll()
+                        .pathMatchers(HttpMethod.PUT, "/auth/users/*/roles").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.POST, "/api/donations/*/claim", "/api/donations/*/pickup")
+                        .hasAnyRole("NGO", "VOLUNTEER", "ADMIN")
+                        .pathMatchers("/api/dispatch/**").hasAnyRole("NGO", "VOLUNTEER", "ADMIN")
+                        .pathMatchers("/ping").permitAll()
+                        .pathMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .pathMatchers("/api/donors/**").authenticated()
+                        .pathMatchers("/api/stats/**").authenticated()
+                        .pathMatchers("/api/**").permitAll()
+                        .pathMatchers("/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtUtil, userDetailsService, tokenDenyList, stateless),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterAfter(new RateLimitWebFilter(rateLimiter), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(List.of("http://localhost:3000"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
+        configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("Authorization", "Content-Type"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    // AuthService still authenticates logins with the blocking manager; the reactive
+    // controller calls it off the event loop
+    @Bean
+    public AuthenticationManager authenticationManager() {
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        authProvider.setUserDetailsService(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes on login after app.security.bcrypt.strength is raised
+        authProvider.setUserDetailsPasswordService(userDetailsService);
+        return new ProviderManager(authProvider);
+    }
+}
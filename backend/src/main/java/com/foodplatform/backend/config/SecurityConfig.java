@@ -3,10 +3,14 @@ package com.foodplatform.backend.config;//package com.foodplatform.backend.confi
 
 
 
+import com.foodplatform.backend.security.BoundedPasswordEncoder;
 import com.foodplatform.backend.security.CustomUserDetailsService;
 import com.foodplatform.backend.security.JwtAuthenticationFilter;
+import com.foodplatform.backend.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -16,8 +20,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -25,6 +27,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.List;
 
+@Profile("!reactive")
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -32,12 +35,20 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    private final RateLimitFilter rateLimitFilter;
+
     private final CustomUserDetailsService userDetailsService;
 
+    private final BoundedPasswordEncoder passwordEncoder;
+
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
-                          CustomUserDetailsService userDetailsService) {
+                          RateLimitFilter rateLimitFilter,
+                          CustomUserDetailsService userDetailsService,
+                          BoundedPasswordEncoder passwordEncoder) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
     }
 
     @Bean
@@ -47,10 +58,20 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses (StreamingResponseBody, SSE) finish on an async dispatch;
+                        // the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         //  Allow Login & Register (Explicit String Matcher)
                         .requestMatchers(HttpMethod.POST, "/auth/**").permitAll()
                         .requestMatchers("/ping").permitAll()
+                        // Health checks and the Prometheus scrape; keep them off the public ingress
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers("/api/donors/**").authenticated()
+                        .requestMatchers("/api/stats/**").authenticated()
+                        .requestMatchers("/api/dispatch/**").authenticated()
+                        // Bulk import is for partner organisations with an account
+                        .requestMatchers("/api/donations/bulk").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/donations/*/claim", "/api/donations/*/pickup").authenticated()
                         .requestMatchers("/api/**").permitAll()
 
                         //  Allow Swagger UI (Optional, handy if you add it later)
@@ -59,7 +80,9 @@ public class SecurityConfig {
                         //  Lock everything else
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // After the JWT filter, so limits per user know the user
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -88,11 +111,6 @@ public class SecurityConfig {
         return source;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -102,7 +120,9 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes on login after app.security.bcrypt.strength is raised
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 }
@@ -1,15 +1,30 @@
 package com.foodplatform.backend.controller;
 
 import com.foodplatform.backend.dto.AuthResponse;
+import com.foodplatform.backend.dto.ChangePasswordRequest;
 import com.foodplatform.backend.dto.LoginRequest;
 import com.foodplatform.backend.dto.RegisterRequest;
+import com.foodplatform.backend.dto.UpdateRolesRequest;
+import com.foodplatform.backend.security.PasswordHashingBusyException;
 import com.foodplatform.backend.service.AuthService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
+@Profile("!reactive")
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -29,4 +44,36 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().build();
+        }
+        authService.logout(authHeader.substring(7));
+        return ResponseEntity.noContent().build();
+    }
+
+    // PUT (not POST) so it falls under "authenticated" rather than the open /auth/** rule
+    @PutMapping("/password")
+    public ResponseEntity<Void> changePassword(Authentication authentication,
+                                               @RequestBody ChangePasswordRequest request) {
+        authService.changePassword(authentication.getName(), request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/users/{username}/roles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> updateRoles(@PathVariable String username,
+                                            @RequestBody UpdateRolesRequest request) {
+        authService.updateRoles(username, request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, String>> handleBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, PasswordHashingBusyException.RETRY_AFTER_SECONDS)
+                .body(Map.of("error", e.getMessage()));
+    }
 }
@@ -0,0 +1,81 @@
+package com.foodplatform.backend.controller;
+
+import com.foodplatform.backend.dto.PresenceRequest;
+import com.foodplatform.backend.service.DispatchService;
+import com.foodplatform.backend.service.RouteService;
+import com.foodplatform.backend.service.VolunteerPresence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+// Volunteers and NGOs going on and off duty, and the pickups the dispatcher suggests to them
+@Profile("!reactive")
+@RestController
+@RequestMapping("/api/dispatch")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasAnyRole('NGO', 'VOLUNTEER', 'ADMIN')")
+public class DispatchController {
+
+    @Autowired
+    private VolunteerPresence volunteerPresence;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private RouteService routeService;
+
+    // Called periodically while available; stop calling (or DELETE) to go offline
+    @PutMapping("/presence")
+    public ResponseEntity<?> reportPresence(@RequestBody PresenceRequest request, Principal principal) {
+        if (request.getLatitude() == null || request.getLongitude() == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "latitude and longitude are required"));
+        }
+        try {
+            volunteerPresence.report(principal.getName(), request.getLatitude(), request.getLongitude(), request.getCapacity());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/presence")
+    public ResponseEntity<Void> leave(Principal principal) {
+        volunteerPresence.leave(principal.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    // The caller's suggested pickups from the last dispatch round; claim them to take them
+    @GetMapping("/assignments")
+    public ResponseEntity<?> getAssignments(Principal principal) {
+        return ResponseEntity.ok(dispatchService.assignmentsFor(principal.getName()));
+    }
+
+    // Order in which to pick up the caller's claimed donations (or just ?ids=a,b of them),
+    // starting from lat/lng, with arrival times and whether each is reached before it expires
+    @GetMapping("/route")
+    public ResponseEntity<?> getRoute(@RequestParam("lat") double lat,
+                                      @RequestParam("lng") double lng,
+                                      @RequestParam(value = "ids", required = false) List<String> ids,
+                                      Principal principal) {
+        try {
+            return ResponseEntity.ok(routeService.planClaimed(principal.getName(), lat, lng, ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
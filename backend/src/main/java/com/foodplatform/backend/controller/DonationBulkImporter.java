@@ -0,0 +1,198 @@
+package com.foodplatform.backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.service.DonationExpiryPolicy;
+import com.foodplatform.backend.service.DonationFeed;
+import com.foodplatform.backend.service.LocationsService;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * POST /api/donations/bulk: reads donations from a JSON array or NDJSON with a streaming parser
+ * and writes them in unordered bulk inserts of app.donations.bulk.batch-size. The result of
+ * every record is written back, in input order, as soon as its batch is done, so neither the
+ * request nor the response is ever held in memory as a whole.
+ *
+ * Records go through the same checks as POST /api/donations (DonationForm). A bad record only
+ * fails itself; malformed JSON ends the import at that point, keeping what came before.
+ */
+@Profile("!reactive")
+@Component
+public class DonationBulkImporter {
+
+    private final ObjectMapper objectMapper;
+    private final MongoTemplate mongoTemplate;
+    private final LocationsService locationsService;
+    private final DonationFeed donationFeed;
+    private final DonationExpiryPolicy expiryPolicy;
+    private final int batchSize;
+    private final int maxItems;
+
+    public DonationBulkImporter(ObjectMapper objectMapper,
+                                MongoTemplate mongoTemplate,
+                                LocationsService locationsService,
+                                DonationFeed donationFeed,
+                                DonationExpiryPolicy expiryPolicy,
+                                @Value("${app.donations.bulk.batch-size:1000}") int batchSize,
+                                @Value("${app.donations.bulk.max-items:100000}") int maxItems) {
+        this.objectMapper = objectMapper;
+        this.mongoTemplate = mongoTemplate;
+        this.locationsService = locationsService;
+        this.donationFeed = donationFeed;
+        this.expiryPolicy = expiryPolicy;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    // One input record: either a donor to insert or the reason it was rejected
+    private record Item(int index, Donor donor, String error) {
+    }
+
+    /**
+     * Writes {"results":[{"index":0,"id":"..."},{"index":1,"error":"..."}],"inserted":n,"failed":m}.
+     */
+    public void importDonations(InputStream body, OutputStream out) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body);
+             JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("results");
+
+            List<Item> batch = new ArrayList<>(batchSize);
+            int[] counts = new int[2]; // inserted, failed
+            int index = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                // A JSON array, or NDJSON: objects one after another at the top level
+                boolean array = token == JsonToken.START_ARRAY;
+                if (array) {
+                    token = parser.nextToken();
+                }
+                while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                    if (index >= maxItems) {
+                        batch.add(new Item(index, null, "Too many records, at most " + maxItems + " per request"));
+                        break;
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        batch.add(new Item(index, null, "Expected a JSON object"));
+                        break;
+                    }
+                    batch.add(toItem(index++, readFields(parser)));
+                    if (batch.size() >= batchSize) {
+                        flush(batch, gen, counts);
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                batch.add(new Item(index, null, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+            flush(batch, gen, counts);
+
+            gen.writeEndArray();
+            gen.writeNumberField("inserted", counts[0]);
+            gen.writeNumberField("failed", counts[1]);
+            gen.writeEndObject();
+        }
+    }
+
+    // The fields of one object as strings, like the multipart form; nested values are ignored
+    private static Map<String, String> readFields(JsonParser parser) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue()) {
+                if (value != JsonToken.VALUE_NULL) {
+                    fields.put(name, parser.getValueAsString());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return fields;
+    }
+
+    private Item toItem(int index, Map<String, String> fields) {
+        String missing = DonationForm.missingField(fields);
+        if (missing != null) {
+            return new Item(index, null, missing + " is required");
+        }
+        try {
+            Donor donor = DonationForm.toDonor(fields, null, expiryPolicy);
+            // Ids are assigned here so each result can name its document
+            donor.setId(new ObjectId().toHexString());
+            return new Item(index, donor, null);
+        } catch (NumberFormatException e) {
+            return new Item(index, null, "latitude and longitude must be numbers");
+        } catch (IllegalArgumentException e) {
+            return new Item(index, null, e.getMessage());
+        }
+    }
+
+    private void flush(List<Item> batch, JsonGenerator gen, int[] counts) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Donor> donors = new ArrayList<>(batch.size());
+        for (Item item : batch) {
+            if (item.donor() != null) {
+                donors.add(item.donor());
+            }
+        }
+
+        // Position in donors -> write error
+        Map<Integer, String> failed = new HashMap<>();
+        if (!donors.isEmpty()) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Donor.class)
+                        .insert(donors)
+                        .execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    failed.put(error.getIndex(), error.getMessage());
+                }
+            }
+        }
+
+        int position = 0;
+        for (Item item : batch) {
+            gen.writeStartObject();
+            gen.writeNumberField("index", item.index());
+            String error = item.error();
+            if (item.donor() != null) {
+                error = failed.get(position++);
+                if (error == null) {
+                    gen.writeStringField("id", item.donor().getId());
+                    locationsService.index(item.donor());
+                    donationFeed.onDonationCreated(item.donor());
+                    counts[0]++;
+                }
+            }
+            if (error != null) {
+                gen.writeStringField("error", error);
+                counts[1]++;
+            }
+            gen.writeEndObject();
+        }
+        gen.flush();
+        batch.clear();
+    }
+}
@@ -2,24 +2,42 @@ package com.foodplatform.backend.controller;
 
 
 
+import com.foodplatform.backend.metrics.ImageTraffic;
 import com.foodplatform.backend.model_temp.Donor;
 import com.foodplatform.backend.model_temp.FoodImage;
-import com.foodplatform.backend.model_temp.Locations;
-import com.foodplatform.backend.model_temp.Donation;
-import com.foodplatform.backend.model_temp.Coordinates;
 import com.foodplatform.backend.repository.DonorRepository;
+import com.foodplatform.backend.service.DonationExpiryPolicy;
+import com.foodplatform.backend.service.DonationFeed;
+import com.foodplatform.backend.service.DonationLifecycleService;
+import com.foodplatform.backend.service.ImageBlobService;
+import com.foodplatform.backend.service.ImageProcessingService;
+import com.foodplatform.backend.service.ImageStore;
+import com.foodplatform.backend.service.ImageUploader;
+import com.foodplatform.backend.service.LocationsService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.time.Instant;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.time.Duration;
 import java.util.*;
 
+@Profile("!reactive")
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -28,75 +46,97 @@ public class DonationController {
     @Autowired
     private DonorRepository donorRepository;
 
-    private static final DateTimeFormatter ISO_FMT =
-            DateTimeFormatter.ISO_INSTANT.withZone(ZoneOffset.UTC);
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ImageUploader imageUploader;
+
+    @Autowired
+    private ImageBlobService imageBlobs;
+
+    @Autowired
+    private LocationsService locationsService;
 
+    @Autowired
+    private DonationFeed donationFeed;
+
+    @Autowired
+    private DonationBulkImporter bulkImporter;
+
+    @Autowired
+    private DonationLifecycleService donationLifecycle;
+
+    @Autowired
+    private DonationExpiryPolicy expiryPolicy;
+
+    @Autowired
+    private ImageProcessingService imageProcessing;
+
+    @Autowired
+    private ImageTraffic imageTraffic;
+
+    // Only for URLs that name the content (?v=, see DonorJson): processing replaces the image
+    // and its hash, so /image alone may serve different bytes later
+    private static final CacheControl IMAGE_CACHE = CacheControl.maxAge(Duration.ofDays(30)).cachePublic();
 
 
     @PostMapping(path = "/donations", consumes = {"multipart/form-data"})
+    @Timed(value = "donations.create", description = "Creating a donation, image upload included", histogram = true)
     public ResponseEntity<?> createDonation(
             @RequestParam Map<String, String> body,
             @RequestPart(value = "foodImage", required = false) MultipartFile file
     ) {
         try {
             // 1. Validation
-            String[] required = {"donorName", "contactNumber", "donorType", "foodFor", "address", "latitude", "longitude"};
-            for (String f : required) {
-                if (!body.containsKey(f) || body.get(f).isBlank()) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                            .body(Map.of("error", f + " is required"));
-                }
+            String missing = DonationForm.missingField(body);
+            if (missing != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", missing + " is required"));
             }
 
-            // 2. Process Image
+            // 2. Build Donor, before the image is stored so a bad field doesn't leave it orphaned
+            Donor donor;
+            try {
+                donor = DonationForm.toDonor(body, null, expiryPolicy);
+            } catch (IllegalArgumentException e) {
+                String error = e instanceof NumberFormatException ? "latitude and longitude must be numbers" : e.getMessage();
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", error));
+            }
+
+            // 3. Process Image
             FoodImage foodImage = null;
             if (file != null && !file.isEmpty()) {
-                if (file.getSize() > 5L * 1024L * 1024L) {
+                if (file.getSize() > DonationForm.MAX_IMAGE_BYTES) {
                     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                             .body(Map.of("error", "File too large. Max 5MB allowed."));
                 }
-                foodImage = new FoodImage();
-                foodImage.setImage(file.getBytes());
-                foodImage.setContentType(file.getContentType());
-            }
-
-            // 3. Build Donation Object
-            String foodFor = body.get("foodFor");
-            String foodType = "Not applicable";
-            String quantity = "Not applicable";
-            if ("humans".equalsIgnoreCase(foodFor)) {
-                foodType = body.getOrDefault("foodType", "Not specified");
-                quantity = body.getOrDefault("quantity", "Not specified");
+                // Multipart parts are spooled to disk, so this streams from the temp file
+                try (InputStream in = file.getInputStream()) {
+                    foodImage = imageUploader.upload(in).orElse(null);
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+                }
             }
 
-            Donation donation = new Donation();
-            donation.setFoodFor(foodFor);
-            donation.setFoodType(foodType);
-            donation.setQuantity(quantity);
-            donation.setFoodImage(foodImage);
-
-            // 4. Build Location
-            Coordinates coords = new Coordinates();
-            coords.setLatitude(Double.parseDouble(body.get("latitude")));
-            coords.setLongitude(Double.parseDouble(body.get("longitude")));
+            donor.getDonation().setFoodImage(foodImage);
 
-            Locations location = new Locations();
-            location.setAddress(body.get("address"));
-            location.setCoordinates(coords);
-
-            // 5. Build Donor
-            Donor donor = new Donor();
-            donor.setDonorName(body.get("donorName"));
-            donor.setContactNumber(body.get("contactNumber"));
-            donor.setDonorType(body.get("donorType"));
-            donor.setDonation(donation);
-            donor.setLocation(location);
-            // Ensure createdAt is set if your DB doesn't do it automatically
-            donor.setCreatedAt(new Date());
-
-            Donor saved = donorRepository.save(donor);
+            Donor saved;
+            try {
+                saved = donorRepository.save(donor);
+            } catch (RuntimeException e) {
+                // Don't leave an orphaned image behind when the donor can't be saved
+                if (foodImage != null) {
+                    imageBlobs.release(foodImage.getImageId());
+                }
+                throw e;
+            }
+            locationsService.index(saved);
+            donationFeed.onDonationCreated(saved);
+            // Thumbnail and resized copy are made in the background
+            imageProcessing.submit(saved);
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(toResponseMap(saved));
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
 
         } catch (Exception e) {
             e.printStackTrace(); // Print error to console for debugging
@@ -105,53 +145,115 @@ public class DonationController {
         }
     }
 
-    private Map<String, Object> toResponseMap(Donor donor) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("_id", donor.getId());
-        map.put("donorName", donor.getDonorName());
-        map.put("contactNumber", donor.getContactNumber());
-        map.put("donorType", donor.getDonorType());
-
-        // donation
-        Map<String, Object> donationMap = new HashMap<>();
-        if (donor.getDonation() != null) {
-            donationMap.put("foodFor", donor.getDonation().getFoodFor());
-            donationMap.put("foodType", donor.getDonation().getFoodType());
-            donationMap.put("quantity", donor.getDonation().getQuantity());
-
-            if (donor.getDonation().getFoodImage() != null && donor.getDonation().getFoodImage().getImage() != null) {
-                String base64 = Base64.getEncoder().encodeToString(donor.getDonation().getFoodImage().getImage());
-                Map<String, Object> img = Map.of(
-                        "image", base64,
-                        "contentType", donor.getDonation().getFoodImage().getContentType()
-                );
-                donationMap.put("foodImage", img);
-            } else {
-                donationMap.put("foodImage", null);
-            }
+    /**
+     * The calling NGO takes the donation. Atomic: when several claim it at once, one gets 200
+     * and the others 409.
+     */
+    @PostMapping("/donations/{id}/claim")
+    @PreAuthorize("hasAnyRole('NGO', 'VOLUNTEER', 'ADMIN')")
+    public ResponseEntity<?> claimDonation(@PathVariable String id, Principal principal) {
+        Optional<Donor> claimed = donationLifecycle.claim(id, principal.getName());
+        if (claimed.isPresent()) {
+            // Taken: /donors/nearest must stop offering it
+            locationsService.unindex(id);
+            return ResponseEntity.ok(claimed.get());
         }
-        map.put("donation", donationMap);
-
-        // location
-        if (donor.getLocation() != null) {
-            Map<String, Object> loc = new HashMap<>();
-            loc.put("address", donor.getLocation().getAddress());
-            if (donor.getLocation().getCoordinates() != null) {
-                Map<String, Object> coords = new HashMap<>();
-                coords.put("latitude", donor.getLocation().getCoordinates().getLatitude());
-                coords.put("longitude", donor.getLocation().getCoordinates().getLongitude());
-                loc.put("coordinates", coords);
-            }
-            map.put("location", loc);
+        return transitionRefused(id, "Donation is no longer available");
+    }
+
+    // By the NGO that claimed it
+    @PostMapping("/donations/{id}/pickup")
+    @PreAuthorize("hasAnyRole('NGO', 'VOLUNTEER', 'ADMIN')")
+    public ResponseEntity<?> pickUpDonation(@PathVariable String id, Principal principal) {
+        Optional<Donor> pickedUp = donationLifecycle.markPickedUp(id, principal.getName());
+        if (pickedUp.isPresent()) {
+            locationsService.unindex(id);
+            return ResponseEntity.ok(pickedUp.get());
+        }
+        return transitionRefused(id, "Donation is not claimed by you");
+    }
+
+    // Only reached when the conditional update matched nothing
+    private ResponseEntity<?> transitionRefused(String id, String conflict) {
+        if (!donorRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", conflict));
+    }
+
+    /**
+     * Many donations in one request, as a JSON array or NDJSON (one object per line) with the
+     * same fields as the form above, without images. Answers with a result for every record.
+     */
+    @PostMapping(path = "/donations/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void createDonations(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        bulkImporter.importDonations(request.getInputStream(), response.getOutputStream());
+    }
+
+    // Streams the donation image straight from the ImageStore instead of inlining it as Base64
+    @GetMapping("/donations/{id}/image")
+    public ResponseEntity<Resource> getDonationImage(@PathVariable String id, WebRequest request) throws IOException {
+        return serveImage(id, false, request);
+    }
+
+    // The small version for lists; 404 until the image has been processed
+    @GetMapping("/donations/{id}/thumbnail")
+    public ResponseEntity<Resource> getDonationThumbnail(@PathVariable String id, WebRequest request) throws IOException {
+        return serveImage(id, true, request);
+    }
+
+    private ResponseEntity<Resource> serveImage(String id, boolean thumbnail, WebRequest request) throws IOException {
+        Donor donor = donorRepository.findById(id).orElse(null);
+        if (donor == null || donor.getDonation() == null || donor.getDonation().getFoodImage() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        FoodImage image = donor.getDonation().getFoodImage();
+        if (thumbnail && image.getThumbnailId() == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String storeId = thumbnail ? image.getThumbnailId() : image.getImageId();
+        // Strong ETag from the content hash, so every donor sharing a photo shares the cached copy.
+        // Thumbnails and images from before hashing use the id of their immutable stored copy.
+        String tag = !thumbnail && image.getSha256() != null ? image.getSha256()
+                : storeId != null ? storeId : donor.getId();
+        String etag = "\"" + tag + "\"";
+        CacheControl cache = imageCache(image, tag, request.getParameter("v"));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cache).build();
         }
 
-        if (donor.getCreatedAt() != null) {
-            map.put("createdAt", ISO_FMT.format(donor.getCreatedAt().toInstant()));
+        Resource body;
+        if (storeId != null) {
+            body = imageStore.load(storeId).orElse(null);
         } else {
-            map.put("createdAt", Instant.now().toString());
+            body = image.getImage() != null ? new ByteArrayResource(image.getImage()) : null;
         }
+        if (body == null) {
+            return ResponseEntity.notFound().build();
+        }
+        imageTraffic.served(body.contentLength());
+
+        // Thumbnails are always JPEG
+        String type = thumbnail ? MediaType.IMAGE_JPEG_VALUE : image.getContentType();
+        MediaType contentType = type != null
+                ? MediaType.parseMediaType(type)
+                : MediaType.APPLICATION_OCTET_STREAM;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .contentLength(body.contentLength())
+                .eTag(etag)
+                .cacheControl(cache)
+                .body(body);
+    }
 
-        return map;
+    /**
+     * Long-lived and public when the URL carries the version it is asking for and the image is
+     * processed; otherwise (pending upload, old or missing ?v=) revalidated against the ETag.
+     */
+    static CacheControl imageCache(FoodImage image, String tag, String version) {
+        return image.isProcessed() && tag.equals(version) ? IMAGE_CACHE : CacheControl.noCache();
     }
 
     // Optional: handle file-too-large exceptions
@@ -0,0 +1,92 @@
+package com.foodplatform.backend.controller;
+
+import com.foodplatform.backend.model_temp.Coordinates;
+import com.foodplatform.backend.model_temp.Donation;
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.model_temp.FoodImage;
+import com.foodplatform.backend.model_temp.Locations;
+import com.foodplatform.backend.model_temp.Quantity;
+import com.foodplatform.backend.service.DonationExpiryPolicy;
+import com.foodplatform.backend.service.LocationsService;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * The form fields of POST /api/donations and how they become a Donor; shared by the servlet
+ * and the reactive controller.
+ */
+final class DonationForm {
+
+    static final String[] REQUIRED = {"donorName", "contactNumber", "donorType", "foodFor", "address", "latitude", "longitude"};
+
+    // Max 5MB per image
+    static final long MAX_IMAGE_BYTES = 5L * 1024L * 1024L;
+
+    private DonationForm() {
+    }
+
+    /** The first required field that is missing or blank, or null when all are there. */
+    static String missingField(Map<String, String> body) {
+        for (String f : REQUIRED) {
+            if (!body.containsKey(f) || body.get(f).isBlank()) {
+                return f;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @throws NumberFormatException when latitude or longitude isn't a number
+     * @throws IllegalArgumentException when the coordinates are out of range (NaN and Infinity
+     * included) or the optional expiresAt isn't valid
+     */
+    static Donor toDonor(Map<String, String> body, FoodImage foodImage, DonationExpiryPolicy expiry) {
+        Date createdAt = new Date();
+        double latitude = Double.parseDouble(body.get("latitude"));
+        double longitude = Double.parseDouble(body.get("longitude"));
+        // The 2dsphere index on position makes MongoDB refuse the document otherwise
+        LocationsService.checkCoordinates(latitude, longitude);
+
+        // 1. Build Donation Object
+        String foodFor = body.get("foodFor");
+        String foodType = "Not applicable";
+        String quantity = "Not applicable";
+        if ("humans".equalsIgnoreCase(foodFor)) {
+            foodType = body.getOrDefault("foodType", "Not specified");
+            quantity = body.getOrDefault("quantity", "Not specified");
+        }
+
+        Donation donation = new Donation();
+        donation.setFoodFor(foodFor);
+        donation.setFoodType(foodType);
+        donation.setQuantity(quantity);
+        donation.setAmount(Quantity.parse(quantity));
+        donation.setFoodImage(foodImage);
+        donation.setStatus(DonationStatus.AVAILABLE);
+        donation.setExpiresAt(expiry.expiresAt(foodFor, body.get("foodType"), body.get("expiresAt"), createdAt));
+
+        // 2. Build Location
+        Coordinates coords = new Coordinates();
+        coords.setLatitude(latitude);
+        coords.setLongitude(longitude);
+
+        Locations location = new Locations();
+        location.setAddress(body.get("address"));
+        location.setCoordinates(coords);
+
+        // 3. Build Donor
+        Donor donor = new Donor();
+        donor.setDonorName(body.get("donorName"));
+        donor.setContactNumber(body.get("contactNumber"));
+        donor.setDonorType(body.get("donorType"));
+        donor.setDonation(donation);
+        donor.setLocation(location);
+        donor.setPosition(new GeoJsonPoint(coords.getLongitude(), coords.getLatitude()));
+        // Ensure createdAt is set if your DB doesn't do it automatically
+        donor.setCreatedAt(createdAt);
+        return donor;
+    }
+}
@@ -0,0 +1,64 @@
+package com.foodplatform.backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodplatform.backend.dto.DonorJson;
+import com.foodplatform.backend.model_temp.Donor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a JSON array of donors to the response as they come off the Mongo cursor, so memory
+ * stays flat however many donors there are. Shared by every endpoint that lists donors.
+ */
+@Profile("!reactive")
+@Component
+public class DonorStreamWriter {
+
+    // Push bytes to the client every so often instead of once per record
+    private static final int FLUSH_EVERY = 100;
+
+    private final ObjectMapper objectMapper;
+
+    // From opening the cursor to the end of the array, on the async thread that writes it
+    private final Timer writeTimer;
+
+    public DonorStreamWriter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.writeTimer = Timer.builder("donors.stream")
+                .description("Time to stream a donor list into the response")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * The stream is opened only when the body is written (on the async request thread that
+     * owns the output stream) and always closed, releasing the server-side cursor.
+     */
+    public StreamingResponseBody jsonArray(Supplier<Stream<Donor>> donors) {
+        return out -> {
+            Timer.Sample sample = Timer.start();
+            try (Stream<Donor> stream = donors.get();
+                 JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.writeStartArray();
+                int written = 0;
+                for (Iterator<Donor> it = stream.iterator(); it.hasNext(); ) {
+                    DonorJson.writeDonor(it.next(), gen);
+                    if (++written % FLUSH_EVERY == 0) {
+                        gen.flush();
+                    }
+                }
+                gen.writeEndArray();
+            } finally {
+                sample.stop(writeTimer);
+            }
+        };
+    }
+}
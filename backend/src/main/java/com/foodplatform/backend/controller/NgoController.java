@@ -1,25 +1,38 @@
 package com.foodplatform.backend.controller;
 
+import com.foodplatform.backend.dto.DonorCursor;
+import com.foodplatform.backend.dto.DonorPageResponse;
+import com.foodplatform.backend.dto.DonorSearch;
+import com.foodplatform.backend.dto.NearbyDonor;
 import com.foodplatform.backend.model_temp.Donor;
 import com.foodplatform.backend.repository.DonorRepository;
+import com.foodplatform.backend.service.DonationFeed;
+import com.foodplatform.backend.service.DonationSpatialIndex;
+import com.foodplatform.backend.service.DonorSearchService;
+import com.foodplatform.backend.service.LocationsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.Instant;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.util.Base64;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+@Profile("!reactive")
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
@@ -28,69 +41,164 @@ public class NgoController {
     @Autowired
     private DonorRepository donorRepository;
 
-    private static final DateTimeFormatter ISO_FMT =
-            DateTimeFormatter.ISO_INSTANT.withZone(ZoneOffset.UTC);
+    @Autowired
+    private LocationsService locationsService;
 
-    @GetMapping("/donors")
-    public ResponseEntity<List<Map<String, Object>>> getAllDonors() {
+    @Autowired
+    private DonorStreamWriter donorStreamWriter;
+
+    @Autowired
+    private DonationFeed donationFeed;
+
+    @Autowired
+    private DonorSearchService donorSearchService;
+
+    @Value("${app.donors.page-size.default:50}")
+    private int defaultPageSize;
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        System.out.println("Current User: " + auth.getName());
-        System.out.println("Authorities: " + auth.getAuthorities());
-        List<Donor> donors = donorRepository.findAll();
-        List<Map<String, Object>> processed = donors.stream()
-                .map(this::toResponseMap)
-                .collect(Collectors.toList());
+    @Value("${app.donors.page-size.max:200}")
+    private int maxPageSize;
 
-        return ResponseEntity.ok(processed);
+    @Value("${app.donors.nearby.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
+    // Streams every donor straight from the Mongo cursor into the response
+    @GetMapping("/donors")
+    public ResponseEntity<StreamingResponseBody> getAllDonors() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(donorStreamWriter.jsonArray(donorRepository::streamAllActive));
     }
 
-    private Map<String, Object> toResponseMap(Donor donor) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("_id", donor.getId());
-        map.put("donorName", donor.getDonorName());
-        map.put("contactNumber", donor.getContactNumber());
-        map.put("donorType", donor.getDonorType());
-
-        // donation
-        Map<String, Object> donationMap = new HashMap<>();
-        if (donor.getDonation() != null) {
-            donationMap.put("foodFor", donor.getDonation().getFoodFor());
-            donationMap.put("foodType", donor.getDonation().getFoodType());
-            donationMap.put("quantity", donor.getDonation().getQuantity());
-
-            if (donor.getDonation().getFoodImage() != null && donor.getDonation().getFoodImage().getImage() != null) {
-                String base64 = Base64.getEncoder().encodeToString(donor.getDonation().getFoodImage().getImage());
-                Map<String, Object> img = Map.of(
-                        "image", base64,
-                        "contentType", donor.getDonation().getFoodImage().getContentType()
-                );
-                donationMap.put("foodImage", img);
-            } else {
-                donationMap.put("foodImage", null);
+    // Keyset-paginated donor list: pass back "nextCursor" from the previous page to continue.
+    @GetMapping("/donors/page")
+    public ResponseEntity<?> getDonorPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        int pageSize = Math.max(1, Math.min(size == null ? defaultPageSize : size, maxPageSize));
+        // Fetch one extra record to find out whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1, NEWEST_FIRST);
+
+        List<Donor> donors;
+        if (cursor == null || cursor.isBlank()) {
+            donors = donorRepository.findFirstPage(pageable);
+        } else {
+            DonorCursor after;
+            try {
+                after = DonorCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
             }
+            donors = donorRepository.findPageAfter(after.getCreatedAt(), after.getId(), pageable);
         }
-        map.put("donation", donationMap);
-
-        // location
-        if (donor.getLocation() != null) {
-            Map<String, Object> loc = new HashMap<>();
-            loc.put("address", donor.getLocation().getAddress());
-            if (donor.getLocation().getCoordinates() != null) {
-                Map<String, Object> coords = new HashMap<>();
-                coords.put("latitude", donor.getLocation().getCoordinates().getLatitude());
-                coords.put("longitude", donor.getLocation().getCoordinates().getLongitude());
-                loc.put("coordinates", coords);
-            }
-            map.put("location", loc);
+
+        String nextCursor = null;
+        if (donors.size() > pageSize) {
+            donors = donors.subList(0, pageSize);
+            Donor last = donors.get(pageSize - 1);
+            nextCursor = DonorCursor.after(last).encode();
         }
 
-        if (donor.getCreatedAt() != null) {
-            map.put("createdAt", ISO_FMT.format(donor.getCreatedAt().toInstant()));
-        } else {
-            map.put("createdAt", Instant.now().toString());
+        return ResponseEntity.ok(new DonorPageResponse(donors, nextCursor));
+    }
+
+    // Donations around a point, nearest first, each with its distance in km
+    @GetMapping("/donors/nearby")
+    public ResponseEntity<?> getNearbyDonors(
+            @RequestParam("lat") double lat,
+            @RequestParam("lng") double lng,
+            @RequestParam(value = "radiusKm", defaultValue = "5") double radiusKm,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        if (radiusKm > maxRadiusKm) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "radiusKm must not exceed " + maxRadiusKm));
+        }
+        int limit = Math.max(1, Math.min(size == null ? defaultPageSize : size, maxPageSize));
+
+        List<GeoResult<Donor>> results;
+        try {
+            results = locationsService.findNearby(lat, lng, radiusKm, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+
+        List<NearbyDonor> nearby = results.stream()
+                .map(result -> new NearbyDonor(result.getContent(), result.getDistance().getValue()))
+                .toList();
+        return ResponseEntity.ok(nearby);
+    }
+
+    // Filtered, paged search, e.g. ?foodFor=humans&createdWithin=6h&lat=18.52&lng=73.85&radiusKm=3.
+    // Filtering, sorting and the total count all happen in MongoDB.
+    @GetMapping("/donors/search")
+    public ResponseEntity<?> searchDonors(@RequestParam Map<String, String> params) {
+        DonorSearch search;
+        try {
+            search = DonorSearch.fromParams(params, defaultPageSize, maxPageSize, maxRadiusKm);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(donorSearchService.search(search));
+    }
+
+    // Live feed of new donations as Server-Sent Events ("donation" events carrying the donor JSON).
+    // Reconnecting with Last-Event-ID (or ?lastEventId= for clients that can't set headers)
+    // replays what was missed; a "reset" event means the client should reload the list instead.
+    @GetMapping(path = "/donors/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamDonations(
+            @RequestParam(value = "foodFor", required = false) String foodFor,
+            @RequestParam(value = "lat", required = false) Double lat,
+            @RequestParam(value = "lng", required = false) Double lng,
+            @RequestParam(value = "radiusKm", defaultValue = "5") double radiusKm,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader
+    ) {
+        if ((lat == null) != (lng == null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "lat and lng must be given together"));
+        }
+        if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "radiusKm must be between 0 and " + maxRadiusKm));
         }
 
-        return map;
+        DonationFeed.Filter filter = new DonationFeed.Filter(
+                foodFor == null || foodFor.isBlank() ? null : foodFor, lat, lng, radiusKm);
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        try {
+            SseEmitter emitter = donationFeed.subscribe(filter, lastEventId);
+            return ResponseEntity.ok()
+                    .header("X-Accel-Buffering", "no") // don't let nginx buffer the stream
+                    .body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Lightweight k-nearest lookup for dispatch screens, answered from the in-memory index
+    @GetMapping("/donors/nearest")
+    public ResponseEntity<?> getNearestDonors(
+            @RequestParam("lat") double lat,
+            @RequestParam("lng") double lng,
+            @RequestParam(value = "k", defaultValue = "10") int k,
+            @RequestParam(value = "radiusKm", required = false) Double radiusKm
+    ) {
+        double radius = radiusKm == null ? maxRadiusKm : Math.min(radiusKm, maxRadiusKm);
+        try {
+            List<DonationSpatialIndex.Hit> hits = locationsService.findNearestInMemory(
+                    lat, lng, Math.max(1, Math.min(k, maxPageSize)), radius);
+            return ResponseEntity.ok(hits);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
     }
 }
@@ -0,0 +1,87 @@
+package com.foodplatform.backend.controller;
+
+import com.foodplatform.backend.dto.AuthResponse;
+import com.foodplatform.backend.dto.ChangePasswordRequest;
+import com.foodplatform.backend.dto.LoginRequest;
+import com.foodplatform.backend.dto.RegisterRequest;
+import com.foodplatform.backend.dto.UpdateRolesRequest;
+import com.foodplatform.backend.security.PasswordHashingBusyException;
+import com.foodplatform.backend.service.AuthService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.security.Principal;
+import java.util.Map;
+
+// AuthController for the "reactive" profile. AuthService is blocking (MongoDB, BCrypt), so
+// every call runs on the bounded elastic scheduler, never on the event loop.
+@Profile("reactive")
+@RestController
+@RequestMapping("/auth")
+public class ReactiveAuthController {
+
+    private final AuthService authService;
+
+    public ReactiveAuthController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<AuthResponse>> register(@RequestBody RegisterRequest request) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(authService.register(request)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthResponse>> login(@RequestBody LoginRequest request) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(authService.login(request)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromRunnable(() -> authService.logout(authHeader.substring(7)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @PutMapping("/password")
+    public Mono<ResponseEntity<Void>> changePassword(Mono<Principal> principal,
+                                                     @RequestBody ChangePasswordRequest request) {
+        return principal
+                .flatMap(user -> Mono.fromRunnable(() -> authService.changePassword(user.getName(), request))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    // ADMIN only, enforced in ReactiveSecurityConfig
+    @PutMapping("/users/{username}/roles")
+    public Mono<ResponseEntity<Void>> updateRoles(@PathVariable String username,
+                                                  @RequestBody UpdateRolesRequest request) {
+        return Mono.fromRunnable(() -> authService.updateRoles(username, request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, String>> handleBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, PasswordHashingBusyException.RETRY_AFTER_SECONDS)
+                .body(Map.of("error", e.getMessage()));
+    }
+}
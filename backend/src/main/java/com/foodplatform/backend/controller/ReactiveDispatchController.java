@@ -0,0 +1,95 @@
+package com.foodplatform.backend.controller;
+
+import com.foodplatform.backend.dto.PresenceRequest;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.service.DispatchService;
+import com.foodplatform.backend.service.LocationsService;
+import com.foodplatform.backend.service.RouteService;
+import com.foodplatform.backend.service.VolunteerPresence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+// DispatchController for the "reactive" profile; the roles are checked in ReactiveSecurityConfig.
+// Presence and assignments are in memory, so nothing here blocks.
+@Profile("reactive")
+@RestController
+@RequestMapping("/api/dispatch")
+@CrossOrigin(origins = "*")
+public class ReactiveDispatchController {
+
+    @Autowired
+    private VolunteerPresence volunteerPresence;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @PutMapping("/presence")
+    public Mono<ResponseEntity<?>> reportPresence(@RequestBody PresenceRequest request, Mono<Principal> principal) {
+        if (request.getLatitude() == null || request.getLongitude() == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "latitude and longitude are required")));
+        }
+        return principal.map(user -> {
+            try {
+                volunteerPresence.report(user.getName(), request.getLatitude(), request.getLongitude(), request.getCapacity());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+            }
+            return ResponseEntity.noContent().build();
+        });
+    }
+
+    @DeleteMapping("/presence")
+    public Mono<ResponseEntity<Void>> leave(Mono<Principal> principal) {
+        return principal.map(user -> {
+            volunteerPresence.leave(user.getName());
+            return ResponseEntity.noContent().<Void>build();
+        });
+    }
+
+    @GetMapping("/assignments")
+    public Mono<ResponseEntity<?>> getAssignments(Mono<Principal> principal) {
+        return principal.map(user -> ResponseEntity.ok(dispatchService.assignmentsFor(user.getName())));
+    }
+
+    @GetMapping("/route")
+    public Mono<ResponseEntity<?>> getRoute(@RequestParam("lat") double lat,
+                                            @RequestParam("lng") double lng,
+                                            @RequestParam(value = "ids", required = false) List<String> ids,
+                                            Mono<Principal> principal) {
+        try {
+            LocationsService.checkCoordinates(lat, lng);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage())));
+        }
+        return principal.flatMap(user -> mongoTemplate.find(RouteService.claimedQuery(user.getName(), ids), Donor.class).collectList())
+                .<ResponseEntity<?>>map(donors -> {
+                    try {
+                        return ResponseEntity.ok(routeService.plan(lat, lng, donors, System.currentTimeMillis()));
+                    } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+                    }
+                });
+    }
+}
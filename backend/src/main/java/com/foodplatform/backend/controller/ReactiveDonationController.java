@@ -0,0 +1,258 @@
+package com.foodplatform.backend.controller;
+
+import com.foodplatform.backend.metrics.ImageTraffic;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.model_temp.FoodImage;
+import com.foodplatform.backend.repository.ReactiveDonorRepository;
+import com.foodplatform.backend.service.DonationExpiryPolicy;
+import com.foodplatform.backend.service.DonationLifecycleService;
+import com.foodplatform.backend.service.ImageBlobService;
+import com.foodplatform.backend.service.ImageProcessingService;
+import com.foodplatform.backend.service.ImageStore;
+import com.foodplatform.backend.service.ImageUploader;
+import com.foodplatform.backend.service.LocationsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.FormFieldPart;
+import org.springframework.http.codec.multipart.Part;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// DonationController for the "reactive" profile. The multipart body is parsed without holding
+// a thread (file parts larger than spring.webflux.multipart.max-in-memory-size go to disk), so
+// a slow upload only costs a connection. The ImageStore is blocking and is only called once the
+// whole part has arrived, on the bounded elastic scheduler.
+@Profile("reactive")
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReactiveDonationController {
+
+    @Autowired
+    private ReactiveDonorRepository donorRepository;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ImageUploader imageUploader;
+
+    @Autowired
+    private ImageTraffic imageTraffic;
+
+    @Autowired
+    private ImageBlobService imageBlobs;
+
+    @Autowired
+    private LocationsService locationsService;
+
+    @Autowired
+    private ImageProcessingService imageProcessing;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private DonationExpiryPolicy expiryPolicy;
+
+    private static final int READ_BUFFER = 8192;
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    @PostMapping(path = "/donations", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<?>> createDonation(@RequestBody Mono<MultiValueMap<String, Part>> form) {
+        return form.flatMap(parts -> {
+                    Map<String, String> body = new HashMap<>();
+                    parts.forEach((name, values) -> {
+                        if (values.get(0) instanceof FormFieldPart field) {
+                            body.put(name, field.value());
+                        }
+                    });
+
+                    String missing = DonationForm.missingField(body);
+                    if (missing != null) {
+                        return Mono.just(error(HttpStatus.BAD_REQUEST, missing + " is required"));
+                    }
+
+                    // Built before the image is stored so a bad field doesn't leave it orphaned
+                    Donor donor;
+                    try {
+                        donor = DonationForm.toDonor(body, null, expiryPolicy);
+                    } catch (IllegalArgumentException e) {
+                        return Mono.just(error(HttpStatus.BAD_REQUEST, e instanceof NumberFormatException
+                                ? "latitude and longitude must be numbers" : e.getMessage()));
+                    }
+
+                    Mono<Optional<FoodImage>> image = parts.getFirst("foodImage") instanceof FilePart file
+                            ? storeImage(file)
+                            : Mono.just(Optional.empty());
+                    return image.flatMap(foodImage -> {
+                        donor.getDonation().setFoodImage(foodImage.orElse(null));
+                        return save(donor);
+                    });
+                })
+                .onErrorResume(DataBufferLimitException.class,
+                        e -> Mono.just(error(HttpStatus.BAD_REQUEST, "File too large. Max 5MB allowed.")))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(error(HttpStatus.BAD_REQUEST, e.getMessage())))
+                .onErrorResume(e -> Mono.just(error(HttpStatus.INTERNAL_SERVER_ERROR, "Server Error: " + e.getMessage())));
+    }
+
+    private Mono<Optional<FoodImage>> storeImage(FilePart file) {
+        AtomicLong size = new AtomicLong();
+        Flux<DataBuffer> content = file.content().doOnNext(buffer -> {
+            if (size.addAndGet(buffer.readableByteCount()) > DonationForm.MAX_IMAGE_BYTES) {
+                DataBufferUtils.release(buffer);
+                throw new DataBufferLimitException("Image exceeds " + DonationForm.MAX_IMAGE_BYTES + " bytes");
+            }
+        });
+        return Mono.fromCallable(() -> {
+                    try (InputStream in = DataBufferUtils.subscriberInputStream(content, 4)) {
+                        return imageUploader.upload(in);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<ResponseEntity<?>> save(Donor donor) {
+        FoodImage foodImage = donor.getDonation().getFoodImage();
+        return donorRepository.save(donor)
+                .onErrorResume(e -> {
+                    // Don't leave an orphaned image behind when the donor can't be saved
+                    if (foodImage == null) {
+                        return Mono.error(e);
+                    }
+                    return Mono.fromRunnable(() -> imageBlobs.release(foodImage.getImageId()))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .then(Mono.error(e));
+                })
+                .map(saved -> {
+                    locationsService.index(saved);
+                    imageProcessing.submit(saved);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+                });
+    }
+
+    // Same single conditional update as DonationLifecycleService; roles are checked in ReactiveSecurityConfig
+    @PostMapping("/donations/{id}/claim")
+    public Mono<ResponseEntity<?>> claimDonation(@PathVariable String id, Mono<Principal> principal) {
+        return principal.flatMap(user -> mongoTemplate.findAndModify(DonationLifecycleService.claimQuery(id),
+                        DonationLifecycleService.claimUpdate(user.getName()), RETURN_NEW, Donor.class))
+                // Taken: /donors/nearest must stop offering it
+                .doOnNext(claimed -> locationsService.unindex(id))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.defer(() -> transitionRefused(id, "Donation is no longer available")));
+    }
+
+    @PostMapping("/donations/{id}/pickup")
+    public Mono<ResponseEntity<?>> pickUpDonation(@PathVariable String id, Mono<Principal> principal) {
+        return principal.flatMap(user -> mongoTemplate.findAndModify(DonationLifecycleService.pickUpQuery(id, user.getName()),
+                        DonationLifecycleService.pickUpUpdate(), RETURN_NEW, Donor.class))
+                .doOnNext(pickedUp -> locationsService.unindex(id))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.defer(() -> transitionRefused(id, "Donation is not claimed by you")));
+    }
+
+    private Mono<ResponseEntity<?>> transitionRefused(String id, String conflict) {
+        return donorRepository.existsById(id)
+                .map(exists -> exists ? error(HttpStatus.CONFLICT, conflict) : ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/donations/{id}/image")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getDonationImage(@PathVariable String id, ServerWebExchange exchange) {
+        return serveImage(id, false, exchange);
+    }
+
+    // The small version for lists; 404 until the image has been processed
+    @GetMapping("/donations/{id}/thumbnail")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getDonationThumbnail(@PathVariable String id, ServerWebExchange exchange) {
+        return serveImage(id, true, exchange);
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> serveImage(String id, boolean thumbnail, ServerWebExchange exchange) {
+        return donorRepository.findById(id)
+                .filter(donor -> donor.getDonation() != null && donor.getDonation().getFoodImage() != null)
+                .filter(donor -> !thumbnail || donor.getDonation().getFoodImage().getThumbnailId() != null)
+                .flatMap(donor -> {
+                    FoodImage image = donor.getDonation().getFoodImage();
+                    String storeId = thumbnail ? image.getThumbnailId() : image.getImageId();
+                    // Strong ETag from the content hash, so every donor sharing a photo shares the cached copy.
+                    // Thumbnails and images from before hashing use the id of their immutable stored copy.
+                    String tag = !thumbnail && image.getSha256() != null ? image.getSha256()
+                            : storeId != null ? storeId : donor.getId();
+                    String etag = "\"" + tag + "\"";
+                    CacheControl cache = DonationController.imageCache(image, tag,
+                            exchange.getRequest().getQueryParams().getFirst("v"));
+                    if (exchange.checkNotModified(etag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag).cacheControl(cache).<Flux<DataBuffer>>build());
+                    }
+
+                    Mono<Optional<Resource>> resource = storeId != null
+                            ? Mono.fromCallable(() -> imageStore.load(storeId)).subscribeOn(Schedulers.boundedElastic())
+                            : Mono.just(Optional.ofNullable(image.getImage()).map(ByteArrayResource::new));
+                    // Thumbnails are always JPEG, and their size isn't recorded
+                    MediaType contentType = thumbnail ? MediaType.IMAGE_JPEG
+                            : image.getContentType() != null ? MediaType.parseMediaType(image.getContentType())
+                            : MediaType.APPLICATION_OCTET_STREAM;
+                    long size = thumbnail ? 0 : image.getSize();
+                    return resource.flatMap(body -> body
+                            .map(r -> Mono.just(imageResponse(r, contentType, size, etag, cache)))
+                            .orElse(Mono.empty()));
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<Flux<DataBuffer>> imageResponse(Resource resource, MediaType contentType, long size,
+                                                           String etag, CacheControl cache) {
+        // Stored images are read with blocking I/O, so the reads happen off the event loop
+        AtomicLong served = new AtomicLong();
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(
+                        resource::getInputStream, DefaultDataBufferFactory.sharedInstance, READ_BUFFER)
+                .doOnNext(buffer -> served.addAndGet(buffer.readableByteCount()))
+                .doOnComplete(() -> imageTraffic.served(served.get()))
+                .subscribeOn(Schedulers.boundedElastic());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(etag)
+                .cacheControl(cache);
+        if (size > 0) {
+            response.contentLength(size);
+        }
+        return response.body(body);
+    }
+
+    private static ResponseEntity<?> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+}
@@ -0,0 +1,228 @@
+package com.foodplatform.backend.controller;
+
+import com.foodplatform.backend.dto.DonorCursor;
+import com.foodplatform.backend.dto.DonorPageResponse;
+import com.foodplatform.backend.dto.DonorSearch;
+import com.foodplatform.backend.dto.NearbyDonor;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.repository.ReactiveDonorRepository;
+import com.foodplatform.backend.service.DonationFeed;
+import com.foodplatform.backend.service.DonationSpatialIndex;
+import com.foodplatform.backend.service.DonorSearchService;
+import com.foodplatform.backend.service.LocationsService;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// NgoController for the "reactive" profile: same paths, parameters and JSON. Lists are written
+// as the cursor produces them and only as fast as the client reads them.
+@Profile("reactive")
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class ReactiveNgoController {
+
+    @Autowired
+    private ReactiveDonorRepository donorRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private LocationsService locationsService;
+
+    @Value("${app.donors.page-size.default:50}")
+    private int defaultPageSize;
+
+    @Value("${app.donors.page-size.max:200}")
+    private int maxPageSize;
+
+    @Value("${app.donors.nearby.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    @Value("${app.donors.feed.heartbeat:25s}")
+    private Duration heartbeat;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
+    // Marks the end of the change stream so the keep-alive stops with it
+    private static final ServerSentEvent<Object> END = ServerSentEvent.builder().comment("end").build();
+
+    // A JSON array by default; ask for application/x-ndjson to get one donor per line
+    @GetMapping(path = "/donors", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Donor> getAllDonors() {
+        return donorRepository.findAllActive();
+    }
+
+    @GetMapping("/donors/page")
+    public Mono<ResponseEntity<?>> getDonorPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        int pageSize = Math.max(1, Math.min(size == null ? defaultPageSize : size, maxPageSize));
+        // Fetch one extra record to find out whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1, NEWEST_FIRST);
+
+        Flux<Donor> donors;
+        if (cursor == null || cursor.isBlank()) {
+            donors = donorRepository.findFirstPage(pageable);
+        } else {
+            DonorCursor after;
+            try {
+                after = DonorCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage())));
+            }
+            donors = donorRepository.findPageAfter(after.getCreatedAt(), after.getId(), pageable);
+        }
+
+        return donors.collectList().map(page -> {
+            String nextCursor = null;
+            if (page.size() > pageSize) {
+                page = page.subList(0, pageSize);
+                Donor last = page.get(pageSize - 1);
+                nextCursor = DonorCursor.after(last).encode();
+            }
+            return ResponseEntity.ok(new DonorPageResponse(page, nextCursor));
+        });
+    }
+
+    @GetMapping("/donors/nearby")
+    public Mono<ResponseEntity<?>> getNearbyDonors(
+            @RequestParam("lat") double lat,
+            @RequestParam("lng") double lng,
+            @RequestParam(value = "radiusKm", defaultValue = "5") double radiusKm,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        if (radiusKm > maxRadiusKm) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "radiusKm must not exceed " + maxRadiusKm)));
+        }
+        if (radiusKm <= 0) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "radiusKm must be positive")));
+        }
+        try {
+            LocationsService.checkCoordinates(lat, lng);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage())));
+        }
+        int limit = Math.max(1, Math.min(size == null ? defaultPageSize : size, maxPageSize));
+
+        // Point is (x, y), i.e. (longitude, latitude)
+        return donorRepository.findByPositionNear(new Point(lng, lat), new Distance(radiusKm, Metrics.KILOMETERS))
+                .take(limit)
+                .map(result -> new NearbyDonor(result.getContent(), result.getDistance().getValue()))
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/donors/search")
+    public Mono<ResponseEntity<?>> searchDonors(@RequestParam Map<String, String> params) {
+        DonorSearch search;
+        try {
+            search = DonorSearch.fromParams(params, defaultPageSize, maxPageSize, maxRadiusKm);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage())));
+        }
+        return mongoTemplate.aggregate(DonorSearchService.aggregation(search), Donor.class, Document.class)
+                .next()
+                .defaultIfEmpty(new Document())
+                .map(result -> ResponseEntity.ok(DonorSearchService.toResponse(search, result, mongoTemplate.getConverter())));
+    }
+
+    // Answered from the in-memory index, no I/O involved
+    @GetMapping("/donors/nearest")
+    public ResponseEntity<?> getNearestDonors(
+            @RequestParam("lat") double lat,
+            @RequestParam("lng") double lng,
+            @RequestParam(value = "k", defaultValue = "10") int k,
+            @RequestParam(value = "radiusKm", required = false) Double radiusKm
+    ) {
+        double radius = radiusKm == null ? maxRadiusKm : Math.min(radiusKm, maxRadiusKm);
+        try {
+            List<DonationSpatialIndex.Hit> hits = locationsService.findNearestInMemory(
+                    lat, lng, Math.max(1, Math.min(k, maxPageSize)), radius);
+            return ResponseEntity.ok(hits);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Live feed straight off the MongoDB change stream (needs a replica set). Event ids are
+    // change stream resume tokens, so Last-Event-ID resumes exactly where the client stopped.
+    // If the token can't be resumed any more the client gets "reset" and should reload the list.
+    @GetMapping(path = "/donors/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamDonations(
+            @RequestParam(value = "foodFor", required = false) String foodFor,
+            @RequestParam(value = "lat", required = false) Double lat,
+            @RequestParam(value = "lng", required = false) Double lng,
+            @RequestParam(value = "radiusKm", defaultValue = "5") double radiusKm,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader
+    ) {
+        if ((lat == null) != (lng == null) || radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            return Flux.just(ServerSentEvent.builder()
+                    .event("error")
+                    .data(Map.of("error", "lat and lng go together and radiusKm must be between 0 and " + maxRadiusKm))
+                    .build());
+        }
+        DonationFeed.Filter filter = new DonationFeed.Filter(
+                foodFor == null || foodFor.isBlank() ? null : foodFor, lat, lng, radiusKm);
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .filter(newAggregation(match(where("operationType").is("insert"))));
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            options.resumeAfter(new BsonDocument("_data", new BsonString(lastEventId)));
+        }
+
+        Flux<ServerSentEvent<Object>> donations = mongoTemplate.changeStream("donors", options.build(), Donor.class)
+                .filter(event -> event.getBody() != null && filter.matches(event.getBody()))
+                .map(event -> ServerSentEvent.builder((Object) event.getBody())
+                        .id(event.getResumeToken().asDocument().getString("_data").getValue())
+                        .event("donation")
+                        .build())
+                .onErrorResume(e -> lastEventId != null
+                        ? Mono.just(ServerSentEvent.builder((Object) "").event("reset").build())
+                        : Mono.empty());
+        Flux<ServerSentEvent<Object>> keepAlive = Flux.interval(heartbeat)
+                .map(i -> ServerSentEvent.builder().comment("keep-alive").build());
+
+        return Flux.merge(donations.concatWith(Mono.just(END)), keepAlive)
+                .takeUntil(event -> event == END)
+                .filter(event -> event != END);
+    }
+}
@@ -0,0 +1,46 @@
+package com.foodplatform.backend.controller;
+
+import com.foodplatform.backend.dto.ServingsQuery;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.service.DonationStatsService;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.Map;
+
+// StatsController for the "reactive" profile: same pipelines, run on the reactive driver
+@Profile("reactive")
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class ReactiveStatsController {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @GetMapping("/servings")
+    public Mono<ResponseEntity<?>> getServings(@RequestParam Map<String, String> params) {
+        ServingsQuery query;
+        try {
+            query = ServingsQuery.fromParams(params);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage())));
+        }
+        return mongoTemplate.aggregate(DonationStatsService.aggregation(query, new Date()),
+                        mongoTemplate.getCollectionName(Donor.class), Document.class)
+                .map(group -> DonationStatsService.toBucket(query, group))
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,38 @@
+package com.foodplatform.backend.controller;
+
+import com.foodplatform.backend.dto.ServingsQuery;
+import com.foodplatform.backend.service.DonationStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@Profile("!reactive")
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class StatsController {
+
+    @Autowired
+    private DonationStatsService donationStatsService;
+
+    // Servings per food type or grid cell available now (by=foodType|area, cellKm=2),
+    // or offered per hour over the last hours (by=hour, hours=24); optionally only for foodFor
+    @GetMapping("/servings")
+    public ResponseEntity<?> getServings(@RequestParam Map<String, String> params) {
+        ServingsQuery query;
+        try {
+            query = ServingsQuery.fromParams(params);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(donationStatsService.servings(query));
+    }
+}
@@ -0,0 +1,51 @@
+package com.foodplatform.backend.dto;
+
+import com.foodplatform.backend.model_temp.Donor;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset cursor for the donor list: the (createdAt, _id) of the last donor on a page.
+ * Encoded as URL-safe Base64 so clients can pass it back untouched.
+ */
+public class DonorCursor {
+    private final Date createdAt;
+    private final ObjectId id;
+
+    public DonorCursor(Date createdAt, ObjectId id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * The cursor continuing after {@code last}. Donors saved before createdAt existed fall back
+     * to the creation time in their ObjectId, which is what CreatedAtBackfill stores for them.
+     */
+    public static DonorCursor after(Donor last) {
+        ObjectId id = new ObjectId(last.getId());
+        return new DonorCursor(last.getCreatedAt() != null ? last.getCreatedAt() : id.getDate(), id);
+    }
+
+    public Date getCreatedAt() { return createdAt; }
+
+    public ObjectId getId() { return id; }
+
+    public String encode() {
+        String raw = createdAt.getTime() + ":" + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static DonorCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int sep = raw.indexOf(':');
+            long millis = Long.parseLong(raw.substring(0, sep));
+            return new DonorCursor(new Date(millis), new ObjectId(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.foodplatform.backend.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.foodplatform.backend.model_temp.Coordinates;
+import com.foodplatform.backend.model_temp.Donation;
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.model_temp.FoodImage;
+import com.foodplatform.backend.model_temp.Locations;
+import com.foodplatform.backend.model_temp.Quantity;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The one JSON shape of a donor in API responses, written field by field with the streaming
+ * JsonGenerator: no intermediate maps and no reflection over the entity.
+ *
+ * Registered with Spring's ObjectMapper, so returning a Donor (or a DTO holding donors) from a
+ * controller uses it, and list endpoints call {@link #writeDonor} directly while streaming.
+ */
+@JsonComponent
+public class DonorJson {
+
+    private static final DateTimeFormatter ISO_FMT =
+            DateTimeFormatter.ISO_INSTANT.withZone(ZoneOffset.UTC);
+
+    public static void writeDonor(Donor donor, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        writeFields(donor, gen);
+        gen.writeEndObject();
+    }
+
+    static void writeFields(Donor donor, JsonGenerator gen) throws IOException {
+        gen.writeStringField("_id", donor.getId());
+        gen.writeStringField("donorName", donor.getDonorName());
+        gen.writeStringField("contactNumber", donor.getContactNumber());
+        gen.writeStringField("donorType", donor.getDonorType());
+
+        // donation
+        gen.writeObjectFieldStart("donation");
+        Donation donation = donor.getDonation();
+        if (donation != null) {
+            gen.writeStringField("foodFor", donation.getFoodFor());
+            gen.writeStringField("foodType", donation.getFoodType());
+            gen.writeStringField("quantity", donation.getQuantity());
+            Quantity amount = donation.getAmount();
+            if (amount != null) {
+                gen.writeObjectFieldStart("amount");
+                gen.writeNumberField("amount", amount.getAmount());
+                gen.writeStringField("unit", amount.getUnit().name());
+                gen.writeNumberField("servings", amount.getServings());
+                gen.writeEndObject();
+            }
+            DonationStatus status = donation.getStatus() != null ? donation.getStatus() : DonationStatus.AVAILABLE;
+            gen.writeStringField("status", status.name());
+            if (donation.getClaimedBy() != null) {
+                gen.writeStringField("claimedBy", donation.getClaimedBy());
+            }
+            if (donation.getClaimedAt() != null) {
+                gen.writeStringField("claimedAt", ISO_FMT.format(donation.getClaimedAt().toInstant()));
+            }
+            if (donation.getExpiresAt() != null) {
+                gen.writeStringField("expiresAt", ISO_FMT.format(donation.getExpiresAt().toInstant()));
+            }
+            if (donation.getPickedUpAt() != null) {
+                gen.writeStringField("pickedUpAt", ISO_FMT.format(donation.getPickedUpAt().toInstant()));
+            }
+
+            FoodImage image = donation.getFoodImage();
+            // Legacy documents only have the embedded bytes; the image endpoint serves those too
+            if (image != null && (image.getImageId() != null || image.getImage() != null || image.getContentType() != null)) {
+                gen.writeObjectFieldStart("foodImage");
+                // Once processed, the URLs name their content (?v= is the ETag) and may be cached for long
+                String url = "/api/donations/" + donor.getId() + "/image";
+                gen.writeStringField("url", image.isProcessed() && image.getSha256() != null
+                        ? url + "?v=" + image.getSha256() : url);
+                gen.writeStringField("contentType", image.getContentType());
+                gen.writeNumberField("size", image.getSize());
+                // Lists should show the thumbnail; it appears once the upload has been processed
+                if (image.getThumbnailId() != null) {
+                    gen.writeStringField("thumbnailUrl", "/api/donations/" + donor.getId() + "/thumbnail?v=" + image.getThumbnailId());
+                    gen.writeNumberField("width", image.getWidth());
+                    gen.writeNumberField("height", image.getHeight());
+                }
+                gen.writeEndObject();
+            } else {
+                gen.writeNullField("foodImage");
+            }
+        }
+        gen.writeEndObject();
+
+        // location
+        Locations location = donor.getLocation();
+        if (location != null) {
+            gen.writeObjectFieldStart("location");
+            gen.writeStringField("address", location.getAddress());
+            Coordinates coords = location.getCoordinates();
+            if (coords != null) {
+                gen.writeObjectFieldStart("coordinates");
+                writeNumberOrNull(gen, "latitude", coords.getLatitude());
+                writeNumberOrNull(gen, "longitude", coords.getLongitude());
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+        }
+
+        if (donor.getCreatedAt() != null) {
+            gen.writeStringField("createdAt", ISO_FMT.format(donor.getCreatedAt().toInstant()));
+        } else {
+            gen.writeStringField("createdAt", Instant.now().toString());
+        }
+    }
+
+    private static void writeNumberOrNull(JsonGenerator gen, String field, Double value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeNumberField(field, value);
+        }
+    }
+
+    public static class DonorSerializer extends JsonSerializer<Donor> {
+        @Override
+        public void serialize(Donor donor, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            writeDonor(donor, gen);
+        }
+    }
+
+    public static class NearbyDonorSerializer extends JsonSerializer<NearbyDonor> {
+        @Override
+        public void serialize(NearbyDonor nearby, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            writeFields(nearby.donor(), gen);
+            gen.writeNumberField("distanceKm", nearby.distanceKm());
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.foodplatform.backend.dto;
+
+import com.foodplatform.backend.model_temp.Donor;
+
+import java.util.List;
+
+public class DonorPageResponse {
+    private List<Donor> items;
+    private String nextCursor; // null on the last page
+
+    public DonorPageResponse(List<Donor> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Donor> getItems() { return items; }
+    public void setItems(List<Donor> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return nextCursor != null; }
+}
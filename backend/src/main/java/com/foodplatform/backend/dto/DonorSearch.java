@@ -0,0 +1,153 @@
+package com.foodplatform.backend.dto;
+
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.service.LocationsService;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The filters of GET /api/donors/search, parsed and checked. Every filter is optional; a search
+ * without any returns the newest available donations.
+ *
+ * @param status    AVAILABLE unless asked otherwise
+ * @param radiusKm  only with lat and lng
+ */
+public record DonorSearch(String donorType,
+                          String foodFor,
+                          String foodType,
+                          DonationStatus status,
+                          Date createdAfter,
+                          Date createdBefore,
+                          Double lat,
+                          Double lng,
+                          Double radiusKm,
+                          Order order,
+                          int page,
+                          int size) {
+
+    public enum Order { NEWEST, NEAREST }
+
+    // Deep pages cost a skip over everything before them
+    public static final int MAX_OFFSET = 10_000;
+
+    public boolean hasLocation() {
+        return lat != null;
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the parameter that is wrong
+     */
+    public static DonorSearch fromParams(Map<String, String> params, int defaultSize, int maxSize, double maxRadiusKm) {
+        Date createdAfter = instant(params, "createdAfter");
+        Date createdBefore = instant(params, "createdBefore");
+        // "created in the last 6 hours": createdWithin=6h
+        String within = text(params, "createdWithin");
+        if (within != null) {
+            Date since;
+            try {
+                since = Date.from(Instant.now().minus(DurationStyle.detectAndParse(within)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("createdWithin must be a duration like 6h or 30m");
+            }
+            if (createdAfter == null || since.after(createdAfter)) {
+                createdAfter = since;
+            }
+        }
+
+        Double lat = number(params, "lat");
+        Double lng = number(params, "lng");
+        Double radiusKm = number(params, "radiusKm");
+        if ((lat == null) != (lng == null)) {
+            throw new IllegalArgumentException("lat and lng must be given together");
+        }
+        if (lat != null) {
+            LocationsService.checkCoordinates(lat, lng);
+            if (radiusKm == null) {
+                radiusKm = 5.0;
+            }
+            if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+                throw new IllegalArgumentException("radiusKm must be between 0 and " + maxRadiusKm);
+            }
+        } else if (radiusKm != null) {
+            throw new IllegalArgumentException("radiusKm needs lat and lng");
+        }
+
+        Order order = lat != null ? Order.NEAREST : Order.NEWEST;
+        String sort = text(params, "sort");
+        if (sort != null) {
+            try {
+                order = Order.valueOf(sort.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("sort must be newest or nearest");
+            }
+            if (order == Order.NEAREST && lat == null) {
+                throw new IllegalArgumentException("sort=nearest needs lat and lng");
+            }
+        }
+
+        // Expired donations are moved to the archive, so the search never has any
+        DonationStatus status = DonationStatus.AVAILABLE;
+        String statusParam = text(params, "status");
+        if (statusParam != null) {
+            try {
+                status = DonationStatus.valueOf(statusParam.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                status = null;
+            }
+            if (status == null || status == DonationStatus.EXPIRED) {
+                throw new IllegalArgumentException("status must be one of available, claimed, picked_up");
+            }
+        }
+
+        Double sizeParam = number(params, "size");
+        int size = Math.max(1, Math.min(sizeParam == null ? defaultSize : sizeParam.intValue(), maxSize));
+        Double pageParam = number(params, "page");
+        int page = pageParam == null ? 0 : pageParam.intValue();
+        if (page < 0 || (long) page * size > MAX_OFFSET) {
+            throw new IllegalArgumentException("page must be between 0 and " + MAX_OFFSET / size);
+        }
+
+        return new DonorSearch(text(params, "donorType"), text(params, "foodFor"), text(params, "foodType"), status,
+                createdAfter, createdBefore, lat, lng, radiusKm, order, page, size);
+    }
+
+    private static String text(Map<String, String> params, String name) {
+        String value = params.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static Double number(Map<String, String> params, String name) {
+        String value = text(params, name);
+        if (value == null) {
+            return null;
+        }
+        double number;
+        try {
+            number = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        // "NaN" and "Infinity" parse, and would get past every range check
+        if (!Double.isFinite(number)) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        return number;
+    }
+
+    private static Date instant(Map<String, String> params, String name) {
+        String value = text(params, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Date.from(Instant.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 time like 2024-05-01T18:30:00Z");
+        }
+    }
+}
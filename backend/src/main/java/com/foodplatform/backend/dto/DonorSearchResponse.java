@@ -0,0 +1,15 @@
+package com.foodplatform.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of search results and how many donations match in total.
+ *
+ * @param items donors, or {@link NearbyDonor}s when the search had a location
+ */
+public record DonorSearchResponse(long total, int page, int size, List<?> items) {
+
+    public boolean isHasMore() {
+        return (long) (page + 1) * size < total;
+    }
+}
@@ -0,0 +1,7 @@
+package com.foodplatform.backend.dto;
+
+import com.foodplatform.backend.model_temp.Donor;
+
+/** A donor plus its distance from the query point; serialized flat by {@link DonorJson}. */
+public record NearbyDonor(Donor donor, double distanceKm) {
+}
@@ -0,0 +1,16 @@
+package com.foodplatform.backend.dto;
+
+public class PresenceRequest {
+    private Double latitude;
+    private Double longitude;
+    private Integer capacity; // optional: how many pickups at once
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+}
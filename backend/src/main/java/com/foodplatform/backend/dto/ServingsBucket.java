@@ -0,0 +1,14 @@
+package com.foodplatform.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One group of GET /api/stats/servings: the food type, grid cell ("lat,lng" of its centre) or
+ * hour it stands for, how many donations fall in it and how many servings they add up to.
+ *
+ * @param unmeasured donations whose quantity couldn't be parsed; they aren't in servings
+ * @param lat        centre of the cell, only for by=area
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ServingsBucket(String key, Double lat, Double lng, long donations, long servings, long unmeasured) {
+}
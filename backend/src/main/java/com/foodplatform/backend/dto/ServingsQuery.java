@@ -0,0 +1,61 @@
+package com.foodplatform.backend.dto;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The parameters of GET /api/stats/servings, parsed and checked.
+ *
+ * @param cellKm side of the grid cells for {@code by=area}
+ * @param hours  how far back {@code by=hour} goes
+ */
+public record ServingsQuery(Grouping by, String foodFor, double cellKm, int hours) {
+
+    public enum Grouping { FOODTYPE, AREA, HOUR }
+
+    public static final double MAX_CELL_KM = 50;
+    public static final int MAX_HOURS = 7 * 24;
+
+    /**
+     * @throws IllegalArgumentException naming the parameter that is wrong
+     */
+    public static ServingsQuery fromParams(Map<String, String> params) {
+        Grouping by = Grouping.FOODTYPE;
+        String byParam = params.get("by");
+        if (byParam != null && !byParam.isBlank()) {
+            try {
+                by = Grouping.valueOf(byParam.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("by must be foodType, area or hour");
+            }
+        }
+        String foodFor = params.get("foodFor");
+        double cellKm = number(params, "cellKm", 2);
+        if (cellKm <= 0 || cellKm > MAX_CELL_KM) {
+            throw new IllegalArgumentException("cellKm must be between 0 and " + MAX_CELL_KM);
+        }
+        double hours = number(params, "hours", 24);
+        if (hours < 1 || hours > MAX_HOURS) {
+            throw new IllegalArgumentException("hours must be between 1 and " + MAX_HOURS);
+        }
+        return new ServingsQuery(by, foodFor == null || foodFor.isBlank() ? null : foodFor.trim(), cellKm, (int) hours);
+    }
+
+    private static double number(Map<String, String> params, String name, double defaultValue) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        double number;
+        try {
+            number = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        // "NaN" and "Infinity" parse, and NaN would get past the range checks
+        if (!Double.isFinite(number)) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        return number;
+    }
+}
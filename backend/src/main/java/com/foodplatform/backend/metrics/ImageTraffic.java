@@ -0,0 +1,37 @@
+package com.foodplatform.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes of the food images uploaded and served, as the "images.bytes" summary tagged
+ * direction=in (uploads, as received) or direction=out (full images and thumbnails sent).
+ */
+@Component
+public class ImageTraffic {
+
+    private final DistributionSummary received;
+    private final DistributionSummary served;
+
+    public ImageTraffic(MeterRegistry meterRegistry) {
+        this.received = summary(meterRegistry, "in");
+        this.served = summary(meterRegistry, "out");
+    }
+
+    private static DistributionSummary summary(MeterRegistry meterRegistry, String direction) {
+        return DistributionSummary.builder("images.bytes")
+                .description("Size of food images uploaded (in) and served (out)")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    public void received(long bytes) {
+        received.record(bytes);
+    }
+
+    public void served(long bytes) {
+        served.record(bytes);
+    }
+}
@@ -1,15 +1,34 @@
 package com.foodplatform.backend.model_temp;
 
 
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
+
 @Component
 public class Donation {
     private String foodFor;
     private String foodType;
     private String quantity;
+    // Quantity parsed; null when it couldn't be. Written even when null, so QuantityMigration
+    // (which looks for a missing amount) only ever finds donations from before the field
+    @Field(write = Field.Write.ALWAYS)
+    private Quantity amount;
     private FoodImage foodImage;
 
+    // Only ever changed by DonationLifecycleService, with a conditional update
+    private DonationStatus status;
+    @Indexed(sparse = true)     // a volunteer's claimed donations, for route planning
+    private String claimedBy;   // username of the NGO account
+    private Date claimedAt;
+    private Date pickedUpAt;
+
+    // After this the food is no longer safe to hand out; DonationArchiver then moves the donor
+    // to donors_archive. Set from DonationExpiryPolicy when the donation is created.
+    private Date expiresAt;
+
     public Donation(String foodFor, String foodType, String quantity, FoodImage foodImage) {
         this.foodFor = foodFor;
         this.foodType = foodType;
@@ -30,6 +49,10 @@ public class Donation {
         this.quantity=quantity;
     }
 
+    public void setAmount(Quantity amount) {
+        this.amount = amount;
+    }
+
     public void setFoodImage(FoodImage foodImage) {
         this.foodImage=foodImage;
     }
@@ -46,17 +69,65 @@ public class Donation {
         return quantity;
     }
 
+    public Quantity getAmount() {
+        return amount;
+    }
+
     public FoodImage getFoodImage() {
         return foodImage;
     }
 
+    public DonationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DonationStatus status) {
+        this.status = status;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Date getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(Date claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Date getPickedUpAt() {
+        return pickedUpAt;
+    }
+
+    public void setPickedUpAt(Date pickedUpAt) {
+        this.pickedUpAt = pickedUpAt;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
     @Override
     public String toString() {
         return "Donation{" +
                 "foodFor='" + foodFor + '\'' +
                 ", foodType='" + foodType + '\'' +
                 ", quantity='" + quantity + '\'' +
+                ", amount=" + amount +
                 ", foodImage=" + foodImage +
+                ", status=" + status +
+                ", claimedBy='" + claimedBy + '\'' +
+                ", expiresAt=" + expiresAt +
                 '}';
     }
 
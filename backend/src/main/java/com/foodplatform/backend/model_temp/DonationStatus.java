@@ -0,0 +1,33 @@
+package com.foodplatform.backend.model_temp;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Where a donation is in its life. Documents from before statuses existed have none and count
+// as AVAILABLE.
+public enum DonationStatus {
+    AVAILABLE,
+    CLAIMED,     // an NGO is on its way; no one else can claim it
+    PICKED_UP,
+    EXPIRED;
+
+    /** The statuses a donation may move to from this one. */
+    public Set<DonationStatus> next() {
+        return switch (this) {
+            case AVAILABLE -> EnumSet.of(CLAIMED, EXPIRED);
+            case CLAIMED -> EnumSet.of(PICKED_UP, EXPIRED);
+            case PICKED_UP, EXPIRED -> EnumSet.noneOf(DonationStatus.class);
+        };
+    }
+
+    /** The statuses a donation may be in to move to {@code target}. */
+    public static Set<DonationStatus> from(DonationStatus target) {
+        Set<DonationStatus> from = EnumSet.noneOf(DonationStatus.class);
+        for (DonationStatus status : values()) {
+            if (status.next().contains(target)) {
+                from.add(status);
+            }
+        }
+        return from;
+    }
+}
@@ -7,10 +7,28 @@ import java.util.Date;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+// Indexes for the queries the app runs; created at startup by MongoIndexInitializer
 @Component
 @Document(collection = "donors")
+@CompoundIndexes({
+        // Keyset pages of the NGO dashboard: sort (createdAt desc, _id desc)
+        @CompoundIndex(name = "createdAt_id", def = "{ 'createdAt': -1, '_id': -1 }"),
+        // Active-donation filter and DonationArchiver's sweep
+        @CompoundIndex(name = "donation_expiresAt", def = "{ 'donation.expiresAt': 1 }"),
+        // Lists filtered by who the food is for and its status, newest first
+        @CompoundIndex(name = "foodFor_status_createdAt", def = "{ 'donation.foodFor': 1, 'donation.status': 1, 'createdAt': -1 }"),
+        @CompoundIndex(name = "donorType_createdAt", def = "{ 'donorType': 1, 'createdAt': -1 }"),
+        // Images waiting for ImageProcessingService.retryPending; only those are in the index
+        @CompoundIndex(name = "foodImage_pending", def = "{ 'donation.foodImage.processed': 1, '_id': 1 }",
+                partialFilter = "{ 'donation.foodImage.processed': false }")
+})
 public class Donor {
     @Id
     private String id;
@@ -21,6 +39,10 @@ public class Donor {
     private Donation donation;
     private Locations location;
 
+    // Same point as location.coordinates, as GeoJSON [lng, lat] so Mongo can index it
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint position;
+
     @CreatedDate
     private Date createdAt;
 
@@ -72,6 +94,14 @@ public class Donor {
         this.location = location;
     }
 
+    public GeoJsonPoint getPosition() {
+        return position;
+    }
+
+    public void setPosition(GeoJsonPoint position) {
+        this.position = position;
+    }
+
     public Date getCreatedAt() {
         return createdAt;
     }
@@ -100,6 +130,7 @@ public class Donor {
                 ", donorType='" + donorType + '\'' +
                 ", donation=" + donation +
                 ", location=" + location +
+                ", position=" + position +
                 ", createdAt=" + createdAt +
                 '}';
     }
@@ -3,34 +3,105 @@ package com.foodplatform.backend.model_temp;
 
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-
 @Component
 public class FoodImage {
-    private byte[] image;     // stored as binary
+    private String imageId;   // id in the ImageStore (GridFS or local disk)
     private String contentType;
+    private long size;
+    private String sha256;    // hex digest of the stored bytes
+
+    // Filled in by ImageProcessingService once the upload has been processed; until then (or
+    // when the image couldn't be decoded) there is no thumbnail and the size is unknown
+    private String thumbnailId;
+    private int width;
+    private int height;
+    // Set with the fields above. False while the original upload (EXIF included) is still served;
+    // always written, since the partial index of pending images selects on processed: false
+    private boolean processed;
+
+    // Documents written before images moved to the ImageStore embedded the bytes here.
+    // Only read for those old donations, never written.
+    private byte[] image;
 
 
 
-    public void setImage(byte[] bytes) {
-        this.image=bytes;
+    public void setImageId(String imageId) {
+        this.imageId=imageId;
     }
 
     public void setContentType(String contentType) {
         this.contentType=contentType;
     }
 
-    public byte[] getImage() {
-        return image;
+    public void setSize(long size) {
+        this.size=size;
+    }
+
+    public String getImageId() {
+        return imageId;
     }
 
     public String getContentType() {
         return contentType;
     }
 
-    public FoodImage(byte[] image, String contentType) {
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getThumbnailId() {
+        return thumbnailId;
+    }
+
+    public void setThumbnailId(String thumbnailId) {
+        this.thumbnailId = thumbnailId;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    // Images processed before the flag existed are recognised by their thumbnail
+    public boolean isProcessed() {
+        return processed || thumbnailId != null;
+    }
+
+    public void setProcessed(boolean processed) {
+        this.processed = processed;
+    }
+
+    public byte[] getImage() {
+        return image;
+    }
+
+    public void setImage(byte[] image) {
         this.image = image;
+    }
+
+    public FoodImage(String imageId, String contentType, long size) {
+        this.imageId = imageId;
         this.contentType = contentType;
+        this.size = size;
     }
 
     public FoodImage(){}
@@ -38,10 +109,16 @@ public class FoodImage {
     @Override
     public String toString() {
         return "FoodImage{" +
-                "image=" + Arrays.toString(image) +
+                "imageId='" + imageId + '\'' +
                 ", contentType='" + contentType + '\'' +
+                ", size=" + size +
+                ", sha256='" + sha256 + '\'' +
+                ", thumbnailId='" + thumbnailId + '\'' +
+                ", width=" + width +
+                ", height=" + height +
+                ", processed=" + processed +
                 '}';
     }
 
 
-}
\ No newline at end of file
+}
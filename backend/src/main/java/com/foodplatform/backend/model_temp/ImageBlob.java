@@ -0,0 +1,74 @@
+package com.foodplatform.backend.model_temp;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// One stored image per distinct content. Donors reference it by imageId; refCount is how many
+// references exist, and the bytes are deleted from the ImageStore when it drops to zero.
+@Document(collection = "image_blobs")
+public class ImageBlob {
+
+    @Id
+    private String sha256;
+
+    @Indexed(unique = true)
+    private String imageId;
+
+    private String contentType;
+    private long size;
+    private long refCount;
+    private Date createdAt;
+
+    public ImageBlob() {}
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getImageId() {
+        return imageId;
+    }
+
+    public void setImageId(String imageId) {
+        this.imageId = imageId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(long refCount) {
+        this.refCount = refCount;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,95 @@
+package com.foodplatform.backend.model_temp;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Donation.quantity as numbers, so totals can be computed by MongoDB. Parsed from the text the
+// donor entered, which stays in Donation.quantity as it was.
+public class Quantity {
+
+    // "1,000" (a comma before three digits groups thousands), "2.5", "2,5"
+    private static final String GROUPED = "\\d{1,3}(?:,\\d{3})+(?!\\d)(?:\\.\\d+)?";
+    private static final String NUMBER = GROUPED + "|\\d+(?:[.,]\\d+)?";
+    private static final Pattern THOUSANDS = Pattern.compile(GROUPED);
+
+    // "20 plates", "2.5 kg", "10-15 people", ">25" (the donation form's "25-50 people"), "50+"
+    private static final Pattern TEXT = Pattern.compile(
+            "^\\s*(?:>|about|approx\\.?|around)?\\s*(" + NUMBER + ")\\s*(?:(?:-|to)\\s*(?:" + NUMBER + "))?\\s*\\+?\\s*([a-z]+)?",
+            Pattern.CASE_INSENSITIVE);
+
+    // No single donation feeds more; anything above is a typo and would skew the totals
+    static final int MAX_SERVINGS = 100_000;
+
+    private double amount;
+    private QuantityUnit unit;
+    private int servings;   // estimate, from the unit
+
+    public Quantity(double amount, QuantityUnit unit) {
+        this.amount = amount;
+        this.unit = unit;
+        this.servings = (int) Math.round(amount * unit.servingsPerUnit());
+    }
+
+    public Quantity() {
+    }
+
+    /**
+     * Reads the quantity text of a donation. A range counts as its lower end and a bare number
+     * as servings. Returns null for text without an amount ("Not specified"), with a unit
+     * that isn't known, or for more than {@link #MAX_SERVINGS}.
+     */
+    public static Quantity parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher m = TEXT.matcher(text.trim().toLowerCase(Locale.ROOT));
+        if (!m.find()) {
+            return null;
+        }
+        double amount = Double.parseDouble(toDecimal(m.group(1)));
+        QuantityUnit unit = m.group(2) == null ? QuantityUnit.SERVINGS : QuantityUnit.fromWord(m.group(2));
+        if (unit == null || amount <= 0 || amount * unit.servingsPerUnit() > MAX_SERVINGS) {
+            return null;
+        }
+        return new Quantity(amount, unit);
+    }
+
+    // "1,000" -> "1000", "2,5" -> "2.5"
+    private static String toDecimal(String number) {
+        return THOUSANDS.matcher(number).matches() ? number.replace(",", "") : number.replace(',', '.');
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public QuantityUnit getUnit() {
+        return unit;
+    }
+
+    public void setUnit(QuantityUnit unit) {
+        this.unit = unit;
+    }
+
+    public int getServings() {
+        return servings;
+    }
+
+    public void setServings(int servings) {
+        this.servings = servings;
+    }
+
+    @Override
+    public String toString() {
+        return "Quantity{" +
+                "amount=" + amount +
+                ", unit=" + unit +
+                ", servings=" + servings +
+                '}';
+    }
+}
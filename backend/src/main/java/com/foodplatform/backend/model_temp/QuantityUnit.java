@@ -0,0 +1,49 @@
+package com.foodplatform.backend.model_temp;
+
+import java.util.Locale;
+import java.util.Map;
+
+// The units donors describe food in, with roughly how many servings one of them feeds. The
+// factors are estimates for dashboard totals, not nutrition facts.
+public enum QuantityUnit {
+    SERVINGS(1),   // plates, meals, people
+    KG(4),
+    GRAMS(0.004),
+    LITRES(4),
+    PACKETS(1),
+    BOXES(1),
+    PIECES(0.5);   // rotis, fruit, ...
+
+    private static final Map<String, QuantityUnit> WORDS = Map.ofEntries(
+            Map.entry("serving", SERVINGS), Map.entry("servings", SERVINGS),
+            Map.entry("plate", SERVINGS), Map.entry("plates", SERVINGS),
+            Map.entry("meal", SERVINGS), Map.entry("meals", SERVINGS),
+            Map.entry("portion", SERVINGS), Map.entry("portions", SERVINGS),
+            Map.entry("people", SERVINGS), Map.entry("person", SERVINGS), Map.entry("persons", SERVINGS),
+            Map.entry("pax", SERVINGS),
+            Map.entry("kg", KG), Map.entry("kgs", KG), Map.entry("kilo", KG), Map.entry("kilos", KG),
+            Map.entry("kilogram", KG), Map.entry("kilograms", KG),
+            Map.entry("g", GRAMS), Map.entry("gm", GRAMS), Map.entry("gms", GRAMS),
+            Map.entry("gram", GRAMS), Map.entry("grams", GRAMS),
+            Map.entry("l", LITRES), Map.entry("ltr", LITRES), Map.entry("litre", LITRES),
+            Map.entry("litres", LITRES), Map.entry("liter", LITRES), Map.entry("liters", LITRES),
+            Map.entry("packet", PACKETS), Map.entry("packets", PACKETS),
+            Map.entry("pack", PACKETS), Map.entry("packs", PACKETS),
+            Map.entry("box", BOXES), Map.entry("boxes", BOXES),
+            Map.entry("piece", PIECES), Map.entry("pieces", PIECES), Map.entry("pcs", PIECES));
+
+    private final double servingsPerUnit;
+
+    QuantityUnit(double servingsPerUnit) {
+        this.servingsPerUnit = servingsPerUnit;
+    }
+
+    public double servingsPerUnit() {
+        return servingsPerUnit;
+    }
+
+    /** The unit a word like "plates" or "Kg" stands for, or null. */
+    public static QuantityUnit fromWord(String word) {
+        return word == null ? null : WORDS.get(word.toLowerCase(Locale.ROOT));
+    }
+}
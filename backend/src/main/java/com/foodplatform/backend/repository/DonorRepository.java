@@ -1,9 +1,78 @@
 package com.foodplatform.backend.repository;
 
+import com.foodplatform.backend.model_temp.DonationStatus;
 import com.foodplatform.backend.model_temp.Donor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface DonorRepository extends MongoRepository<Donor,String> {
+
+    // The queries below only see active donations: those whose expiresAt hasn't passed (or that
+    // have none). DonationArchiver moves expired ones out of the collection, this covers the
+    // time until its next run. The default methods pass the current time.
+
+    // Keyset pagination for the NGO dashboard. Pages are ordered by (createdAt desc, _id desc)
+    // and the embedded image bytes are never loaded, so every page costs the same no matter
+    // how large the collection grows.
+
+    default List<Donor> findFirstPage(Pageable pageable) {
+        return findFirstPageActiveAt(new Date(), pageable);
+    }
+
+    default List<Donor> findPageAfter(Date createdAt, ObjectId id, Pageable pageable) {
+        return findPageAfterActiveAt(createdAt, id, new Date(), pageable);
+    }
+
+    @Query(value = "{ 'donation.expiresAt': { '$not': { '$lte': ?0 } } }",
+            fields = "{ 'donation.foodImage.image': 0 }")
+    List<Donor> findFirstPageActiveAt(Date now, Pageable pageable);
+
+    @Query(value = "{ 'donation.expiresAt': { '$not': { '$lte': ?2 } }, "
+            + "'$or': [ { 'createdAt': { '$lt': ?0 } }, { 'createdAt': ?0, '_id': { '$lt': ?1 } } ] }",
+            fields = "{ 'donation.foodImage.image': 0 }")
+    List<Donor> findPageAfterActiveAt(Date createdAt, ObjectId id, Date now, Pageable pageable);
+
+    // $geoNear on the 2dsphere "position" index, results come back nearest first. Every donor
+    // has an expiresAt since DonationArchiver backfilled them, so a plain "after" is enough.
+    // Only donations still up for grabs; those from before statuses existed have none.
+    default List<GeoResult<Donor>> findByPositionNear(Point point, Distance distance, Pageable pageable) {
+        return findByPositionNearAndDonationExpiresAtAfterAndDonationStatusIn(point, distance, new Date(),
+                Arrays.asList(DonationStatus.AVAILABLE, null), pageable);
+    }
+
+    List<GeoResult<Donor>> findByPositionNearAndDonationExpiresAtAfterAndDonationStatusIn(
+            Point point, Distance distance, Date now, Collection<DonationStatus> statuses, Pageable pageable);
+
+    // Everything but the legacy embedded image bytes, read through a cursor.
+    // The caller must close the stream.
+    default Stream<Donor> streamAllActive() {
+        return streamAllActiveAt(new Date());
+    }
+
+    @Query(value = "{ 'donation.expiresAt': { '$not': { '$lte': ?0 } } }", fields = "{ 'donation.foodImage.image': 0 }")
+    Stream<Donor> streamAllActiveAt(Date now);
+
+    // Just enough to rebuild the in-memory spatial index, read through a cursor.
+    // The caller must close the stream.
+    default Stream<Donor> streamActiveLocations() {
+        return streamActiveLocationsAt(new Date());
+    }
+
+    @Query(value = "{ 'location.coordinates.latitude': { '$type': 'double' }, 'donation.expiresAt': { '$not': { '$lte': ?0 } }, "
+            + "'donation.status': { '$in': [ 'AVAILABLE', null ] } }",
+            fields = "{ 'location.coordinates': 1, 'createdAt': 1, 'donation.expiresAt': 1 }")
+    Stream<Donor> streamActiveLocationsAt(Date now);
 }
@@ -0,0 +1,56 @@
+package com.foodplatform.backend.repository;
+
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+
+// Same queries as DonorRepository for the "reactive" profile, also limited to active donations. Results are pulled from the
+// cursor as the subscriber requests them, so a slow client slows the query instead of
+// piling documents up in memory.
+@Repository
+public interface ReactiveDonorRepository extends ReactiveMongoRepository<Donor, String> {
+
+    default Flux<Donor> findAllActive() {
+        return findAllActiveAt(new Date());
+    }
+
+    default Flux<Donor> findFirstPage(Pageable pageable) {
+        return findFirstPageActiveAt(new Date(), pageable);
+    }
+
+    default Flux<Donor> findPageAfter(Date createdAt, ObjectId id, Pageable pageable) {
+        return findPageAfterActiveAt(createdAt, id, new Date(), pageable);
+    }
+
+    @Query(value = "{ 'donation.expiresAt': { '$not': { '$lte': ?0 } } }", fields = "{ 'donation.foodImage.image': 0 }")
+    Flux<Donor> findAllActiveAt(Date now);
+
+    @Query(value = "{ 'donation.expiresAt': { '$not': { '$lte': ?0 } } }", fields = "{ 'donation.foodImage.image': 0 }")
+    Flux<Donor> findFirstPageActiveAt(Date now, Pageable pageable);
+
+    @Query(value = "{ 'donation.expiresAt': { '$not': { '$lte': ?2 } }, "
+            + "'$or': [ { 'createdAt': { '$lt': ?0 } }, { 'createdAt': ?0, '_id': { '$lt': ?1 } } ] }",
+            fields = "{ 'donation.foodImage.image': 0 }")
+    Flux<Donor> findPageAfterActiveAt(Date createdAt, ObjectId id, Date now, Pageable pageable);
+
+    // $geoNear on the 2dsphere "position" index, nearest first; only donations still available
+    default Flux<GeoResult<Donor>> findByPositionNear(Point point, Distance distance) {
+        return findByPositionNearAndDonationExpiresAtAfterAndDonationStatusIn(point, distance, new Date(),
+                Arrays.asList(DonationStatus.AVAILABLE, null));
+    }
+
+    Flux<GeoResult<Donor>> findByPositionNearAndDonationExpiresAtAfterAndDonationStatusIn(
+            Point point, Distance distance, Date now, Collection<DonationStatus> statuses);
+}
@@ -4,6 +4,8 @@ package com.foodplatform.backend.repository;
 
 import com.foodplatform.backend.model_temp.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import java.util.Optional;
 
 public interface UserRepository extends MongoRepository<User, String> {
@@ -15,4 +17,9 @@ public interface UserRepository extends MongoRepository<User, String> {
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
+
+    // Only if the hash is still the one we rehashed, so a password changed in between is kept
+    @Query("{ 'username': ?0, 'password': ?1 }")
+    @Update("{ '$set': { 'password': ?2 } }")
+    long replacePassword(String username, String currentHash, String newHash);
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.foodplatform.backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt with app.security.bcrypt.strength, run on its own small pool instead of the request
+ * thread. A hash takes tens of milliseconds of CPU; a burst of logins or registrations on the
+ * request threads would starve every other request. Here at most app.security.bcrypt.threads
+ * hashes run at once (half the cores by default), up to app.security.bcrypt.queue-capacity
+ * more wait, and the request thread (a virtual thread by default) waits for its result.
+ *
+ * When the queue is full, or the result doesn't come within app.security.bcrypt.timeout, the
+ * request fails with {@link PasswordHashingBusyException} (503) rather than queueing without
+ * bound. Queue depth, wait and hashing time are published as the executor.* metrics tagged
+ * name=passwordHashing, refusals as "password.hashing.rejected".
+ *
+ * {@link #upgradeEncoding} is true for hashes made with a lower strength, so after raising it
+ * DaoAuthenticationProvider rehashes each password at the user's next login (through
+ * {@link CustomUserDetailsService#updatePassword}).
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Duration timeout;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter queueFull;
+    private final Counter timedOut;
+
+    @Autowired
+    public BoundedPasswordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength,
+                                  @Value("${app.security.bcrypt.threads:0}") int threads,
+                                  @Value("${app.security.bcrypt.queue-capacity:100}") int queueCapacity,
+                                  @Value("${app.security.bcrypt.timeout:5s}") Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(strength),
+                threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                queueCapacity, timeout, meterRegistry);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout,
+                           MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hashing-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "passwordHashing");
+        this.queueFull = rejectedCounter(meterRegistry, "queue-full");
+        this.timedOut = rejectedCounter(meterRegistry, "timeout");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("password.hashing.rejected")
+                .description("Password hashes refused because the hashing pool was busy")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only reads the cost out of the hash, no need to queue
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T call(Callable<T> hashing) {
+        Future<T> result;
+        try {
+            result = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            queueFull.increment();
+            throw new PasswordHashingBusyException();
+        }
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Still queued: drop it. Already running: let it finish, nobody reads it.
+            result.cancel(false);
+            timedOut.increment();
+            throw new PasswordHashingBusyException();
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -4,6 +4,7 @@ import com.foodplatform.backend.model_temp.User;
 import com.foodplatform.backend.repository.UserRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,13 +12,21 @@ import org.springframework.stereotype.Service;
 import java.util.stream.Collectors;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    // Used by the JWT filter on every request. Login keeps calling loadUserByUsername so the
+    // password is always checked against the database.
+    public UserDetails loadCachedUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadUserByUsername);
     }
 
     @Override
@@ -39,4 +48,17 @@ public class CustomUserDetailsService implements UserDetailsService {
                 authorities
         );
     }
-}
\ No newline at end of file
+
+    // Called by DaoAuthenticationProvider after a successful login when the stored hash has a
+    // lower BCrypt strength than configured. Same password, so existing tokens stay valid.
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.replacePassword(user.getUsername(), user.getPassword(), newPassword) == 0) {
+            return user;
+        }
+        userDetailsCache.invalidate(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.foodplatform.backend.security;
+
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/**
+ * WebFlux counterpart of {@link JwtAuthenticationFilter}: same token parsing, deny list and
+ * stateless/cached-user modes. The user lookup can hit MongoDB on a cache miss, so it runs on
+ * the bounded elastic scheduler instead of the event loop.
+ *
+ * Added to the security chain by ReactiveSecurityConfig, not registered as a bean itself, so
+ * it runs once per request.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationWebFilter.class);
+
+    private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenDenyList tokenDenyList;
+    private final boolean stateless;
+
+    public JwtAuthenticationWebFilter(JwtUtil jwtUtil,
+                                      CustomUserDetailsService userDetailsService,
+                                      TokenDenyList tokenDenyList,
+                                      boolean stateless) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.tokenDenyList = tokenDenyList;
+        this.stateless = stateless;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.parseToken(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return chain.filter(exchange);
+        }
+        if (claims.subject() == null || tokenDenyList.isRevoked(claims)) {
+            return chain.filter(exchange);
+        }
+
+        Mono<UserDetails> user = stateless
+                ? Mono.just(new User(claims.subject(), "", claims.roles().stream().map(SimpleGrantedAuthority::new).toList()))
+                : Mono.fromCallable(() -> userDetailsService.loadCachedUserByUsername(claims.subject()))
+                        .subscribeOn(Schedulers.boundedElastic());
+
+        return user
+                .map(details -> Optional.of(new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities())))
+                // A token for a deleted user is treated like no token at all
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.just(Optional.empty()))
+                .flatMap(auth -> auth.isEmpty()
+                        ? chain.filter(exchange)
+                        : chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth.get())));
+    }
+}
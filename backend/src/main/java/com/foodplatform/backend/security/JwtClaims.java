@@ -0,0 +1,14 @@
+package com.foodplatform.backend.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The parts of a verified token the application uses, read from a single parse.
+ *
+ * @param subject   username
+ * @param tokenId   the "jti" claim, null for tokens issued before it was added
+ * @param roles     authority names such as "ROLE_NGO", empty for tokens without a roles claim
+ */
+public record JwtClaims(String subject, String tokenId, List<String> roles, Instant issuedAt, Instant expiresAt) {
+}
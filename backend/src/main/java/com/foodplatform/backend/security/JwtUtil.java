@@ -2,18 +2,38 @@ package com.foodplatform.backend.security;
 
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
@@ -24,30 +44,110 @@ public class JwtUtil {
     // It must be at least 256 bits (32 chars) for HS256 algorithm.
     private static final String SECRET_KEY = "mySuperSecretKeyThatIsVeryLongAndSecure123456";
 
+    public static final Duration TOKEN_VALIDITY = Duration.ofHours(10);
+
+    // Claim carrying the user's authorities, e.g. ["ROLE_NGO"]
+    static final String ROLES_CLAIM = "roles";
+
+    // Both are immutable and thread-safe, so they are built once instead of per call
+    private final Key signInKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+
+    // Tokens that already passed verification, keyed by their SHA-256 and kept until they expire.
+    // A client sends the same token on every request, so most requests skip the HMAC and JSON parse.
+    private final Cache<ByteBuffer, JwtClaims> verifiedTokens;
+
+    // Full verifications (signature, JSON parse) by outcome; cache hits show in cache.* name=jwtVerified
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+
+    public JwtUtil(@Value("${app.security.jwt.verified-cache.enabled:true}") boolean cacheVerifiedTokens,
+                   @Value("${app.security.jwt.verified-cache.max-size:10000}") long maxCachedTokens,
+                   MeterRegistry meterRegistry) {
+        this.verifiedTokens = cacheVerifiedTokens
+                ? Caffeine.newBuilder()
+                    .maximumSize(maxCachedTokens)
+                    .expireAfter(new Expiry<ByteBuffer, JwtClaims>() {
+                        @Override
+                        public long expireAfterCreate(ByteBuffer key, JwtClaims claims, long currentTime) {
+                            return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(ByteBuffer key, JwtClaims claims, long currentTime, long currentDuration) {
+                            return expireAfterCreate(key, claims, currentTime);
+                        }
+
+                        @Override
+                        public long expireAfterRead(ByteBuffer key, JwtClaims claims, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .recordStats()
+                    .build()
+                : null;
+        if (verifiedTokens != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerified");
+        }
+        this.validTokens = verifyTimer(meterRegistry, "valid");
+        this.invalidTokens = verifyTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Time to verify and parse a token that wasn't cached")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     //  Generate Token
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setClaims(extraClaims)
+                .setClaims(claims)
+                .setId(UUID.randomUUID().toString()) // lets a single token be revoked on logout
                 .setSubject(userDetails.getUsername()) // The "Main" data (username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 Hours
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256) // Sign it
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TOKEN_VALIDITY.toMillis())) // 10 Hours
+                .signWith(signInKey, SignatureAlgorithm.HS256) // Sign it
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry and reads everything the filter needs from the one
+     * parse. Throws a JwtException if the token is invalid or expired.
+     */
+    public JwtClaims parseToken(String token) {
+        if (verifiedTokens == null) {
+            return verify(token);
+        }
+        ByteBuffer key = sha256(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(key);
+        // The cache evicts at expiry, but only approximately; re-check so we never go past it
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+        JwtClaims claims = verify(token);
+        verifiedTokens.put(key, claims);
+        return claims;
+    }
+
     // Extract Username
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).subject();
     }
 
-    //  Validate Token
+    //  Validate Token (expiry is enforced by the parser itself)
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return parseToken(token).subject().equals(userDetails.getUsername());
     }
 
 
@@ -57,26 +157,47 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private JwtClaims verify(String token) {
+        long start = System.nanoTime();
+        try {
+            JwtClaims claims = toClaims(extractAllClaims(token));
+            validTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static JwtClaims toClaims(Claims claims) {
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no expiry");
+        }
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.getId(),
+                toRoles(claims.get(ROLES_CLAIM)),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant()
+        );
+    }
+
+    private Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static List<String> toRoles(Object claim) {
+        if (!(claim instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream().map(String::valueOf).toList();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY); // Or just use .getBytes() if raw string
-        // For this example, since SECRET_KEY is simple text, you can also use:
-        // return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private static ByteBuffer sha256(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
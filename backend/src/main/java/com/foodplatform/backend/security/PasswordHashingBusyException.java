@@ -0,0 +1,17 @@
+package com.foodplatform.backend.security;
+
+/**
+ * Thrown when a password can't be hashed or checked now because {@link BoundedPasswordEncoder}
+ * is saturated. Not an AuthenticationException, so a login fails with 503 instead of looking
+ * like wrong credentials. The auth controllers answer it themselves: a @ResponseStatus would be
+ * forwarded to /error, which anonymous clients aren't allowed to see.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    // A full queue drains in about this long at the default strength
+    public static final String RETRY_AFTER_SECONDS = "1";
+
+    public PasswordHashingBusyException() {
+        super("Too many logins at the moment, try again shortly");
+    }
+}
@@ -0,0 +1,67 @@
+package com.foodplatform.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * Answers 429 with Retry-After to clients over their limit (see {@link RateLimiter}). Runs
+ * after the JWT filter so limits keyed by user see who is signed in, and before the request
+ * body is read, so a refused upload costs next to nothing.
+ *
+ * Rules match the decoded path within the application, the one Spring MVC routes on, so
+ * /auth/%6cogin is limited like /auth/login.
+ *
+ * Limits keyed by IP use the connection's address; behind a proxy, set
+ * server.forward-headers-strategy so that is the client's.
+ */
+@Profile("!reactive")
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimiter.Decision decision = rateLimiter.check(request.getMethod(),
+                UrlPathHelper.defaultInstance.getPathWithinApplication(request),
+                request.getRemoteAddr(), RateLimitFilter::currentUser);
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds(decision)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests, try again later\"}");
+    }
+
+    static long retryAfterSeconds(RateLimiter.Decision decision) {
+        // Whole seconds, rounded up so the retry doesn't come too early
+        return Math.max(1, (decision.retryAfter().toMillis() + 999) / 1000);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,66 @@
+package com.foodplatform.backend.security;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link RateLimitFilter} for the "reactive" profile. Added to the security chain right after
+ * the JWT filter by ReactiveSecurityConfig.
+ */
+public class RateLimitWebFilter implements WebFilter {
+
+    private static final byte[] BODY = "{\"error\":\"Too many requests, try again later\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitWebFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        String ip = remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+        String method = exchange.getRequest().getMethod().name();
+        String path = decodedPath(exchange.getRequest().getPath().pathWithinApplication());
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> context.getAuthentication() == null
+                        || context.getAuthentication() instanceof AnonymousAuthenticationToken
+                        || !context.getAuthentication().isAuthenticated() ? "" : context.getAuthentication().getName())
+                .defaultIfEmpty("")
+                .flatMap(user -> {
+                    RateLimiter.Decision decision = rateLimiter.check(method, path, ip, () -> user.isEmpty() ? null : user);
+                    if (decision.allowed()) {
+                        return chain.filter(exchange);
+                    }
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    response.getHeaders().set("Retry-After", Long.toString(RateLimitFilter.retryAfterSeconds(decision)));
+                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    DataBuffer body = response.bufferFactory().wrap(BODY);
+                    return response.writeWith(Mono.just(body));
+                });
+    }
+
+    // What WebFlux routes on: segments percent-decoded and without ;parameters
+    static String decodedPath(PathContainer path) {
+        StringBuilder decoded = new StringBuilder();
+        for (PathContainer.Element element : path.elements()) {
+            decoded.append(element instanceof PathContainer.PathSegment segment ? segment.valueToMatch() : element.value());
+        }
+        return decoded.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package com.foodplatform.backend.security;
+
+import com.foodplatform.backend.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Token buckets per rule and client, for {@link RateLimitFilter} and
+ * {@link RateLimitWebFilter}.
+ *
+ * A bucket is a single AtomicLong holding the time at which it will be full again (the GCRA
+ * form of a token bucket): taking a token moves that time one refill interval later, and a
+ * request is refused when that would put it more than the bucket's capacity ahead of now.
+ * Taking a token is one compare-and-set, so there is no lock to contend on; the buckets live in
+ * a Caffeine cache (concurrent, bounded to app.rate-limit.max-keys, idle ones dropped).
+ *
+ * Refusals are counted in the "ratelimit.rejected" meter, tagged with the rule.
+ */
+@Component
+public class RateLimiter {
+
+    /** The outcome for one request; retryAfter is zero when it is allowed. */
+    public record Decision(boolean allowed, String rule, Duration retryAfter) {
+        static final Decision ALLOWED = new Decision(true, null, Duration.ZERO);
+    }
+
+    private record CompiledRule(String name, RateLimitProperties.Rule rule, long intervalNanos, long burstNanos,
+                                Counter rejected) {
+    }
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final boolean enabled;
+    private final List<CompiledRule> rules = new ArrayList<>();
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier clock;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.enabled = properties.enabled();
+        this.clock = clock;
+        Duration longestPeriod = Duration.ofMinutes(1);
+        for (Map.Entry<String, RateLimitProperties.Rule> entry : properties.rules().entrySet()) {
+            RateLimitProperties.Rule rule = entry.getValue();
+            if (rule.path() == null || rule.capacity() < 1 || rule.tokensPerPeriod() < 1) {
+                throw new IllegalArgumentException("app.rate-limit.rules." + entry.getKey()
+                        + " needs a path, a capacity and refill-tokens of at least 1");
+            }
+            long interval = rule.refillPeriod().toNanos() / rule.tokensPerPeriod();
+            rules.add(new CompiledRule(entry.getKey(), rule, interval, interval * (rule.capacity() - 1),
+                    Counter.builder("ratelimit.rejected")
+                            .description("Requests refused with 429")
+                            .tag("rule", entry.getKey())
+                            .register(meterRegistry)));
+            Duration refillAll = Duration.ofNanos(interval * rule.capacity());
+            if (refillAll.compareTo(longestPeriod) > 0) {
+                longestPeriod = refillAll;
+            }
+        }
+        // A bucket left alone for this long is full again, so forgetting it changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxKeys())
+                .expireAfterAccess(longestPeriod)
+                .build();
+        Gauge.builder("ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Clients being rate limited")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token for the request from the bucket of the first matching rule.
+     *
+     * @param user the signed-in username, or null; only asked for by rules keyed by user
+     */
+    public Decision check(String method, String path, String ip, Supplier<String> user) {
+        if (!enabled) {
+            return Decision.ALLOWED;
+        }
+        for (CompiledRule compiled : rules) {
+            RateLimitProperties.Rule rule = compiled.rule();
+            if ((rule.method() != null && !rule.method().equalsIgnoreCase(method)) || !pathMatcher.match(rule.path(), path)) {
+                continue;
+            }
+            String client = null;
+            if (rule.key() == RateLimitProperties.KeyType.USER) {
+                String username = user.get();
+                client = username != null ? "user:" + username : null;
+            }
+            if (client == null) {
+                client = "ip:" + ip;
+            }
+            return take(compiled, buckets.get(compiled.name() + '|' + client, k -> new AtomicLong(Long.MIN_VALUE)));
+        }
+        return Decision.ALLOWED;
+    }
+
+    private Decision take(CompiledRule rule, AtomicLong fullAt) {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            // A new bucket (or one full since long ago) counts from now
+            long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = base + rule.intervalNanos();
+            long ahead = next - now - rule.intervalNanos();
+            if (ahead > rule.burstNanos()) {
+                rule.rejected().increment();
+                return new Decision(false, rule.name(), Duration.ofNanos(ahead - rule.burstNanos()));
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return Decision.ALLOWED;
+            }
+        }
+    }
+}
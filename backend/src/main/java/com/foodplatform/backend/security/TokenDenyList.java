@@ -0,0 +1,73 @@
+package com.foodplatform.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Tokens that must stop working before they expire: single tokens revoked on logout, and
+ * every token of a user issued before their roles or password changed.
+ *
+ * Entries only live as long as the tokens they cover, so the list stays small. It is held in
+ * memory, which is enough for a single instance; several instances would need to share it.
+ */
+@Component
+public class TokenDenyList {
+
+    private final Cache<String, Instant> revokedTokens;
+    private final Cache<String, Instant> userCutoffs;
+
+    public TokenDenyList() {
+        // Keep each revoked token id until the token would have expired anyway
+        this.revokedTokens = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfter(new Expiry<String, Instant>() {
+                    @Override
+                    public long expireAfterCreate(String key, Instant expiresAt, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Instant expiresAt, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, expiresAt, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Instant expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        // Older tokens are past their expiry once a full token lifetime has gone by
+        this.userCutoffs = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(JwtUtil.TOKEN_VALIDITY)
+                .build();
+    }
+
+    public void revokeToken(JwtClaims claims) {
+        if (claims.tokenId() != null) {
+            revokedTokens.put(claims.tokenId(), claims.expiresAt());
+        }
+    }
+
+    /** Revokes every token of the user issued up to now. */
+    public void revokeAllFor(String username) {
+        userCutoffs.put(username, Instant.now());
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        if (claims.tokenId() != null && revokedTokens.getIfPresent(claims.tokenId()) != null) {
+            return true;
+        }
+        Instant cutoff = userCutoffs.getIfPresent(claims.subject());
+        // "iat" has second precision: a token from the same second as the cutoff stays valid,
+        // otherwise the token issued right after a password change would be rejected too
+        return cutoff != null && claims.issuedAt() != null
+                && claims.issuedAt().getEpochSecond() < cutoff.getEpochSecond();
+    }
+}
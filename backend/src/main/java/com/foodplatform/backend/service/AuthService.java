@@ -2,15 +2,23 @@ package com.foodplatform.backend.service;
 
 
 import com.foodplatform.backend.dto.AuthResponse;
+import com.foodplatform.backend.dto.ChangePasswordRequest;
 import com.foodplatform.backend.dto.LoginRequest;
 import com.foodplatform.backend.dto.RegisterRequest;
+import com.foodplatform.backend.dto.UpdateRolesRequest;
 import com.foodplatform.backend.model_temp.Role;
 import com.foodplatform.backend.model_temp.User;
 import com.foodplatform.backend.repository.UserRepository;
 import com.foodplatform.backend.security.JwtUtil;
+import com.foodplatform.backend.security.TokenDenyList;
+import com.foodplatform.backend.security.UserDetailsCache;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -25,17 +33,24 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenDenyList tokenDenyList;
 
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        JwtUtil jwtUtil,
-                       AuthenticationManager authenticationManager) {
+                       AuthenticationManager authenticationManager,
+                       UserDetailsCache userDetailsCache,
+                       TokenDenyList tokenDenyList) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
+        this.userDetailsCache = userDetailsCache;
+        this.tokenDenyList = tokenDenyList;
     }
 
+    @Timed(value = "auth.register", histogram = true)
     public AuthResponse register(RegisterRequest request) {
         // 1. Validation: Check if user exists
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -43,19 +58,7 @@ public class AuthService {
         }
 
         // 2. Map Roles (String -> Enum)
-        Set<Role> roles = new HashSet<>();
-        if (request.getRoles() != null) {
-            for (String role : request.getRoles()) {
-                try {
-                    roles.add(Role.valueOf(role.toUpperCase()));
-                } catch (IllegalArgumentException e) {
-                    // Ignore invalid roles or set default
-                    roles.add(Role.USER);
-                }
-            }
-        } else {
-            roles.add(Role.USER); // Default role
-        }
+        Set<Role> roles = toRoles(request.getRoles());
 
         // 3. Create User Object
         User user = new User();
@@ -71,7 +74,7 @@ public class AuthService {
         String token = jwtUtil.generateToken(new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
-                new HashSet<>() // Roles not needed for token generation in this simple example
+                toAuthorities(roles) // signed into the token for the stateless JWT filter
         ));
 
         return new AuthResponse(token);
@@ -101,6 +104,7 @@ public class AuthService {
 //
 //        return new AuthResponse(token);
 //    }
+@Timed(value = "auth.login", histogram = true)
 public AuthResponse login(LoginRequest request) {
     // 1. Authenticate
     authenticationManager.authenticate(
@@ -115,9 +119,7 @@ public AuthResponse login(LoginRequest request) {
 
     // 3. Convert Custom Roles (Enum) to Spring Security Authorities
     // Create a Set of GrantedAuthority based on your Role enums
-    Set<SimpleGrantedAuthority> authorities = user.getRoles().stream()
-            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name())) // Ensure ROLE_ prefix
-            .collect(Collectors.toSet());
+    Set<SimpleGrantedAuthority> authorities = toAuthorities(user.getRoles());
 
     // 4. Generate Token WITH Roles
     String token = jwtUtil.generateToken(new org.springframework.security.core.userdetails.User(
@@ -128,4 +130,57 @@ public AuthResponse login(LoginRequest request) {
 
     return new AuthResponse(token);
 }
+
+    public void changePassword(String username, ChangePasswordRequest request) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Current password is incorrect");
+        }
+        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        userRepository.save(user);
+        userDetailsCache.invalidate(username);
+        tokenDenyList.revokeAllFor(username);
+    }
+
+    public void updateRoles(String username, UpdateRolesRequest request) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        user.setRoles(toRoles(request.getRoles()));
+        userRepository.save(user);
+        userDetailsCache.invalidate(username);
+        // Existing tokens carry the old roles
+        tokenDenyList.revokeAllFor(username);
+    }
+
+    public void logout(String token) {
+        try {
+            tokenDenyList.revokeToken(jwtUtil.parseToken(token));
+        } catch (JwtException e) {
+            // Invalid or already expired, nothing left to revoke
+        }
+    }
+
+    private static Set<SimpleGrantedAuthority> toAuthorities(Set<Role> roles) {
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name())) // Ensure ROLE_ prefix
+                .collect(Collectors.toSet());
+    }
+
+    private Set<Role> toRoles(Set<String> names) {
+        Set<Role> roles = new HashSet<>();
+        if (names != null) {
+            for (String role : names) {
+                try {
+                    roles.add(Role.valueOf(role.toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    // Ignore invalid roles or set default
+                    roles.add(Role.USER);
+                }
+            }
+        } else {
+            roles.add(Role.USER); // Default role
+        }
+        return roles;
+    }
 }
@@ -0,0 +1,59 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.Donor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Gives donors saved before createdAt existed the creation time from their ObjectId, in donors
+ * and in donors_archive. Without it they sort after everything else in the keyset-paginated
+ * list and are skipped by its cursors, and the statistics by hour leave them out. One update
+ * per collection at startup, done by MongoDB; running it again finds nothing to do.
+ */
+@Service
+public class CreatedAtBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(CreatedAtBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public CreatedAtBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (String collection : List.of(mongoTemplate.getCollectionName(Donor.class), DonationArchiver.ARCHIVE_COLLECTION)) {
+            try {
+                long updated = mongoTemplate.updateMulti(missingCreatedAt(),
+                        AggregationUpdate.update().set("createdAt").toValue(ConvertOperators.ToDate.toDate("$_id")),
+                        collection).getModifiedCount();
+                if (updated > 0) {
+                    log.info("Set createdAt from the ObjectId of {} donors in {}", updated, collection);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not backfill createdAt in {}: {}", collection, e.getMessage());
+            }
+        }
+    }
+
+    // Null matches a missing field too; only ObjectIds carry a timestamp
+    static Query missingCreatedAt() {
+        return query(where("createdAt").is(null).and("_id").type(JsonSchemaObject.Type.OBJECT_ID));
+    }
+}
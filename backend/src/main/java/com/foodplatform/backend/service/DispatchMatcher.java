@@ -0,0 +1,90 @@
+package com.foodplatform.backend.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Assigns donations to volunteers for one dispatch round: every donation to at most one
+ * volunteer, no volunteer more donations than their capacity, the closer the better.
+ *
+ * Two steps. The spatial pre-filter puts the volunteers in a {@link DonationSpatialIndex} and
+ * keeps, for each donation, only its {@code candidatesPerDonation} nearest volunteers within
+ * {@code maxRadiusKm}; that bounds the work by donations x candidates instead of donations x
+ * volunteers. The solver then takes these candidate pairs shortest first and makes every pair
+ * whose donation is still open and whose volunteer has capacity left (greedy nearest). A
+ * min-cost assignment would replace only that second step and work on the same candidates.
+ *
+ * A donation whose candidates are all full stays unassigned this round; the next round sees
+ * it again, with other volunteers around by then. Not thread-safe; use one per round.
+ */
+public class DispatchMatcher {
+
+    public static final int UNASSIGNED = -1;
+
+    private final double maxRadiusKm;
+    private final int candidatesPerDonation;
+    private final double cellSizeDeg;
+
+    public DispatchMatcher(double maxRadiusKm, int candidatesPerDonation, double cellSizeDeg) {
+        if (maxRadiusKm <= 0 || candidatesPerDonation < 1) {
+            throw new IllegalArgumentException("maxRadiusKm and candidatesPerDonation must be positive");
+        }
+        this.maxRadiusKm = maxRadiusKm;
+        this.candidatesPerDonation = candidatesPerDonation;
+        this.cellSizeDeg = cellSizeDeg;
+    }
+
+    /**
+     * @return for each donation the index of its volunteer, or {@link #UNASSIGNED}
+     */
+    public int[] match(double[] donationLat, double[] donationLng,
+                       double[] volunteerLat, double[] volunteerLng, int[] capacity) {
+        int[] assigned = new int[donationLat.length];
+        Arrays.fill(assigned, UNASSIGNED);
+        if (donationLat.length == 0 || volunteerLat.length == 0) {
+            return assigned;
+        }
+
+        DonationSpatialIndex volunteers = new DonationSpatialIndex(cellSizeDeg);
+        for (int v = 0; v < volunteerLat.length; v++) {
+            if (capacity[v] > 0) {
+                volunteers.put(Integer.toString(v), volunteerLat[v], volunteerLng[v], 0);
+            }
+        }
+
+        // Candidate pairs as parallel arrays; sortKeys orders them by distance
+        int maxPairs = donationLat.length * Math.min(candidatesPerDonation, volunteers.size());
+        int[] pairDonation = new int[maxPairs];
+        int[] pairVolunteer = new int[maxPairs];
+        long[] sortKeys = new long[maxPairs];
+        int pairs = 0;
+        for (int d = 0; d < donationLat.length; d++) {
+            List<DonationSpatialIndex.Hit> nearest = volunteers.nearest(donationLat[d], donationLng[d], candidatesPerDonation, maxRadiusKm);
+            for (DonationSpatialIndex.Hit hit : nearest) {
+                pairDonation[pairs] = d;
+                pairVolunteer[pairs] = Integer.parseInt(hit.id());
+                sortKeys[pairs] = sortKey(hit.distanceKm(), pairs);
+                pairs++;
+            }
+        }
+        Arrays.sort(sortKeys, 0, pairs);
+
+        int[] remaining = capacity.clone();
+        for (int i = 0; i < pairs; i++) {
+            int pair = (int) sortKeys[i];
+            int d = pairDonation[pair];
+            int v = pairVolunteer[pair];
+            if (assigned[d] == UNASSIGNED && remaining[v] > 0) {
+                assigned[d] = v;
+                remaining[v]--;
+            }
+        }
+        return assigned;
+    }
+
+    // The bits of a non-negative float sort like its value, so distance then pair index
+    // fit in one long and a primitive sort orders the pairs without boxing
+    private static long sortKey(double distanceKm, int pair) {
+        return ((long) Float.floatToIntBits((float) distanceKm) << 32) | pair;
+    }
+}
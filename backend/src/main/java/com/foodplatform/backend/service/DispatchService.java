@@ -0,0 +1,144 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Suggests pickups to the volunteers who are online. Every app.dispatch.interval it matches
+ * the available donations against {@link VolunteerPresence} with a {@link DispatchMatcher},
+ * keeps the result for GET /api/dispatch/assignments and publishes it as a
+ * {@link DispatchRound} event.
+ *
+ * Assignments are suggestions: the donation stays AVAILABLE until the volunteer claims it, and
+ * the claim decides who gets it. The next round leaves claimed donations out.
+ */
+@Service
+public class DispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    /** A suggested pickup. */
+    public record Assignment(String donationId, double latitude, double longitude, double distanceKm) {
+    }
+
+    /** The result of one round, per volunteer username. */
+    public record DispatchRound(Date at, Map<String, List<Assignment>> assignments, int donations, int volunteers) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final VolunteerPresence presence;
+    private final ApplicationEventPublisher events;
+    private final double maxRadiusKm;
+    private final int candidatesPerDonation;
+    private final double cellSizeDeg;
+    private final int maxDonations;
+
+    private volatile DispatchRound lastRound = new DispatchRound(new Date(0), Map.of(), 0, 0);
+
+    public DispatchService(MongoTemplate mongoTemplate,
+                           VolunteerPresence presence,
+                           ApplicationEventPublisher events,
+                           @Value("${app.dispatch.max-radius-km:10}") double maxRadiusKm,
+                           @Value("${app.dispatch.candidates-per-donation:8}") int candidatesPerDonation,
+                           @Value("${app.dispatch.cell-size-deg:0.02}") double cellSizeDeg,
+                           @Value("${app.dispatch.max-donations:20000}") int maxDonations) {
+        this.mongoTemplate = mongoTemplate;
+        this.presence = presence;
+        this.events = events;
+        this.maxRadiusKm = maxRadiusKm;
+        this.candidatesPerDonation = candidatesPerDonation;
+        this.cellSizeDeg = cellSizeDeg;
+        this.maxDonations = maxDonations;
+    }
+
+    @Scheduled(initialDelayString = "${app.dispatch.initial-delay:30s}",
+            fixedDelayString = "${app.dispatch.interval:30s}")
+    public void dispatch() {
+        try {
+            List<VolunteerPresence.Presence> volunteers = presence.online();
+            if (volunteers.isEmpty() && lastRound.assignments().isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            DispatchRound round = match(availableDonations(new Date()), volunteers);
+            lastRound = round;
+            events.publishEvent(round);
+            log.debug("Dispatch round: {} donations, {} volunteers, {} assigned in {} ms",
+                    round.donations(), round.volunteers(),
+                    round.assignments().values().stream().mapToInt(List::size).sum(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Dispatch round failed: {}", e.getMessage());
+        }
+    }
+
+    /** What the last round suggested to this user; empty when nothing. */
+    public List<Assignment> assignmentsFor(String username) {
+        return lastRound.assignments().getOrDefault(username, List.of());
+    }
+
+    // Soonest to expire first, so those are the ones kept when there are more than maxDonations
+    private List<Document> availableDonations(Date now) {
+        Query available = query(where("donation.expiresAt").not().lte(now)
+                .and("donation.status").in(Arrays.asList(DonationStatus.AVAILABLE.name(), null))
+                .and("position").exists(true))
+                .with(Sort.by("donation.expiresAt"))
+                .limit(maxDonations);
+        available.fields().include("position");
+        return mongoTemplate.find(available, Document.class, mongoTemplate.getCollectionName(Donor.class));
+    }
+
+    DispatchRound match(List<Document> donations, List<VolunteerPresence.Presence> volunteers) {
+        double[] donationLat = new double[donations.size()];
+        double[] donationLng = new double[donations.size()];
+        for (int d = 0; d < donations.size(); d++) {
+            // GeoJSON coordinates are [longitude, latitude]
+            List<Number> coordinates = donations.get(d).get("position", Document.class).getList("coordinates", Number.class);
+            donationLng[d] = coordinates.get(0).doubleValue();
+            donationLat[d] = coordinates.get(1).doubleValue();
+        }
+        double[] volunteerLat = new double[volunteers.size()];
+        double[] volunteerLng = new double[volunteers.size()];
+        int[] capacity = new int[volunteers.size()];
+        for (int v = 0; v < volunteers.size(); v++) {
+            volunteerLat[v] = volunteers.get(v).latitude();
+            volunteerLng[v] = volunteers.get(v).longitude();
+            capacity[v] = volunteers.get(v).capacity();
+        }
+
+        int[] assigned = new DispatchMatcher(maxRadiusKm, candidatesPerDonation, cellSizeDeg)
+                .match(donationLat, donationLng, volunteerLat, volunteerLng, capacity);
+
+        Map<String, List<Assignment>> byVolunteer = new HashMap<>();
+        for (int d = 0; d < assigned.length; d++) {
+            int v = assigned[d];
+            if (v == DispatchMatcher.UNASSIGNED) {
+                continue;
+            }
+            double distanceKm = DonationSpatialIndex.haversineKm(donationLat[d], donationLng[d], volunteerLat[v], volunteerLng[v]);
+            byVolunteer.computeIfAbsent(volunteers.get(v).username(), u -> new ArrayList<>())
+                    .add(new Assignment(donations.get(d).get("_id").toString(), donationLat[d], donationLng[d], distanceKm));
+        }
+        return new DispatchRound(new Date(), byVolunteer, donations.size(), volunteers.size());
+    }
+}
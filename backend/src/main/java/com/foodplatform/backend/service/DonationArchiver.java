@@ -0,0 +1,146 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Moves expired donations out of donors into donors_archive, so the collection the app queries
+ * (and its indexes) only holds what is still useful and stays small enough to be cached in
+ * memory. A TTL index would only delete; the archive keeps the history for statistics.
+ *
+ * Runs every app.donations.archive.interval, in batches of app.donations.archive.batch-size:
+ * copy the batch to the archive (upserts, so a crash between the steps just repeats them),
+ * then delete it from donors. Instances running it at the same time do the same upserts and
+ * one of them deletes.
+ */
+@Service
+public class DonationArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationArchiver.class);
+
+    public static final String ARCHIVE_COLLECTION = "donors_archive";
+
+    private final MongoTemplate mongoTemplate;
+    private final LocationsService locationsService;
+    private final DonationExpiryPolicy expiryPolicy;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public DonationArchiver(MongoTemplate mongoTemplate,
+                            LocationsService locationsService,
+                            DonationExpiryPolicy expiryPolicy,
+                            @Value("${app.donations.archive.batch-size:500}") int batchSize,
+                            @Value("${app.donations.archive.max-batches-per-run:100}") int maxBatches) {
+        this.mongoTemplate = mongoTemplate;
+        this.locationsService = locationsService;
+        this.expiryPolicy = expiryPolicy;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(initialDelayString = "${app.donations.archive.initial-delay:1m}",
+            fixedDelayString = "${app.donations.archive.interval:5m}")
+    public void archiveExpired() {
+        try {
+            long archived = 0;
+            for (int i = 0; i < maxBatches; i++) {
+                int moved = archiveBatch(new Date());
+                archived += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+            }
+            if (archived > 0) {
+                log.info("Archived {} expired donations", archived);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not archive expired donations: {}", e.getMessage());
+        }
+    }
+
+    /** Archives up to one batch of donations expired at {@code now}; returns how many. */
+    int archiveBatch(Date now) {
+        Query expired = query(where("donation.expiresAt").lte(now))
+                .with(Sort.by("donation.expiresAt"))
+                .limit(batchSize);
+        // Raw documents, so fields the Donor class doesn't know about are archived too
+        List<Document> batch = mongoTemplate.find(expired, Document.class, mongoTemplate.getCollectionName(Donor.class));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations archive = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ARCHIVE_COLLECTION);
+        List<Object> ids = new ArrayList<>(batch.size());
+        for (Document donor : batch) {
+            Document donation = donor.get("donation", Document.class);
+            if (donation != null) {
+                Object status = donation.get("status");
+                // Nobody picked it up in time
+                if (status == null || DonationStatus.AVAILABLE.name().equals(status) || DonationStatus.CLAIMED.name().equals(status)) {
+                    donation.put("status", DonationStatus.EXPIRED.name());
+                }
+            }
+            donor.put("archivedAt", now);
+            ids.add(donor.get("_id"));
+            archive.replaceOne(query(where("_id").is(donor.get("_id"))), donor, FindAndReplaceOptions.options().upsert());
+        }
+        archive.execute();
+
+        // Same condition as the find, so nothing that changed in between is deleted unarchived
+        mongoTemplate.remove(query(where("_id").in(ids).and("donation.expiresAt").lte(now)), Donor.class);
+        for (Object id : ids) {
+            locationsService.unindex(id.toString());
+        }
+        return batch.size();
+    }
+
+    /**
+     * Gives donations from before expiry existed an expiresAt: createdAt plus the default shelf
+     * life. The next sweep then archives the old ones. (The donors index on expiresAt is
+     * declared on Donor.)
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareExpiry() {
+        try {
+            mongoTemplate.indexOps(ARCHIVE_COLLECTION).createIndex(new Index("archivedAt", Sort.Direction.DESC));
+            // For the servings per hour statistics
+            mongoTemplate.indexOps(ARCHIVE_COLLECTION).createIndex(new Index("createdAt", Sort.Direction.DESC));
+
+            long shelfLifeMillis = expiryPolicy.defaultShelfLife().toMillis();
+            AggregationUpdate setExpiry = AggregationUpdate.update()
+                    .set("donation.expiresAt").toValue(new Document("$add",
+                            List.of(new Document("$ifNull", List.of("$createdAt", "$$NOW")), shelfLifeMillis)));
+            long updated = mongoTemplate.updateMulti(
+                    query(where("donation.expiresAt").exists(false)), setExpiry, Donor.class).getModifiedCount();
+            if (updated > 0) {
+                log.info("Backfilled expiresAt on {} donors", updated);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not prepare donation expiry: {}", e.getMessage());
+        }
+    }
+}
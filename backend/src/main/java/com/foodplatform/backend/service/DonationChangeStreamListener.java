@@ -0,0 +1,100 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.Donor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Feeds {@link DonationFeed} from a MongoDB change stream on donors, so every instance sees
+ * every new donation. Needs a replica set (Atlas always is one).
+ *
+ * Keeps the resume token of the last event: if the stream breaks it is reopened after that
+ * event, so nothing is lost or sent twice.
+ */
+@Profile("!reactive")
+@Component
+@ConditionalOnProperty(name = "app.donors.feed.source", havingValue = DonationFeed.SOURCE_CHANGE_STREAM)
+public class DonationChangeStreamListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationChangeStreamListener.class);
+
+    private static final long RETRY_MIN_SECONDS = 1;
+    private static final long RETRY_MAX_SECONDS = 60;
+
+    private final DonationFeed feed;
+    private final MessageListenerContainer container;
+    private final ScheduledExecutorService retry = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "donation-change-stream-retry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile BsonValue resumeToken;
+    private volatile long retrySeconds = RETRY_MIN_SECONDS;
+
+    public DonationChangeStreamListener(DonationFeed feed, MongoTemplate mongoTemplate) {
+        this.feed = feed;
+        this.container = new DefaultMessageListenerContainer(mongoTemplate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        container.start();
+        register();
+    }
+
+    private void register() {
+        ChangeStreamRequest.ChangeStreamRequestBuilder<Donor> builder = ChangeStreamRequest.builder(this::onMessage)
+                .collection("donors")
+                .filter(newAggregation(match(where("operationType").is("insert"))));
+        if (resumeToken != null) {
+            builder.resumeToken(resumeToken);
+        }
+        container.register(builder.build(), Donor.class, this::onError);
+        log.info("Listening for new donations on the donors change stream");
+    }
+
+    private void onMessage(Message<ChangeStreamDocument<Document>, Donor> message) {
+        retrySeconds = RETRY_MIN_SECONDS;
+        resumeToken = message.getRaw().getResumeToken();
+        Donor donor = message.getBody();
+        if (donor != null) {
+            feed.publish(donor);
+        }
+    }
+
+    private void onError(Throwable e) {
+        long delay = retrySeconds;
+        retrySeconds = Math.min(RETRY_MAX_SECONDS, retrySeconds * 2);
+        log.warn("Donor change stream failed, reopening in {}s: {}", delay, e.getMessage());
+        retry.schedule(this::register, delay, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        retry.shutdownNow();
+        container.stop();
+    }
+}
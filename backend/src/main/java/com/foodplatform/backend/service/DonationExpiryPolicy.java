@@ -0,0 +1,77 @@
+package com.foodplatform.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+/**
+ * How long a donation stays up for grabs. Cooked food for people is only good for hours, so the
+ * default depends on foodFor and foodType (app.donations.expiry.*). A donor can set their own
+ * expiresAt, up to app.donations.expiry.max after creation.
+ */
+@Component
+public class DonationExpiryPolicy {
+
+    private final Duration veg;
+    private final Duration nonVeg;
+    private final Duration animals;
+    private final Duration fallback;
+    private final Duration max;
+
+    public DonationExpiryPolicy(@Value("${app.donations.expiry.humans.veg:8h}") Duration veg,
+                                @Value("${app.donations.expiry.humans.nonveg:6h}") Duration nonVeg,
+                                @Value("${app.donations.expiry.animals:12h}") Duration animals,
+                                @Value("${app.donations.expiry.default:8h}") Duration fallback,
+                                @Value("${app.donations.expiry.max:7d}") Duration max) {
+        this.veg = veg;
+        this.nonVeg = nonVeg;
+        this.animals = animals;
+        this.fallback = fallback;
+        this.max = max;
+    }
+
+    public Duration shelfLife(String foodFor, String foodType) {
+        if ("animals".equalsIgnoreCase(foodFor)) {
+            return animals;
+        }
+        if ("humans".equalsIgnoreCase(foodFor)) {
+            if ("veg".equalsIgnoreCase(foodType)) {
+                return veg;
+            }
+            if ("nonveg".equalsIgnoreCase(foodType)) {
+                return nonVeg;
+            }
+        }
+        return fallback;
+    }
+
+    /** The shelf life to assume for donations created before expiry existed. */
+    public Duration defaultShelfLife() {
+        return fallback;
+    }
+
+    /**
+     * @param requested the donor's own expiresAt (ISO-8601 instant), or null
+     * @throws IllegalArgumentException when the requested time isn't valid
+     */
+    public Date expiresAt(String foodFor, String foodType, String requested, Date createdAt) {
+        Instant created = createdAt.toInstant();
+        if (requested == null || requested.isBlank()) {
+            return Date.from(created.plus(shelfLife(foodFor, foodType)));
+        }
+        Instant expiresAt;
+        try {
+            expiresAt = Instant.parse(requested.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("expiresAt must be an ISO-8601 time like 2024-05-01T18:30:00Z");
+        }
+        if (!expiresAt.isAfter(created) || expiresAt.isAfter(created.plus(max))) {
+            throw new IllegalArgumentException("expiresAt must be in the future and at most " + max.toHours() + " hours away");
+        }
+        return Date.from(expiresAt);
+    }
+}
@@ -0,0 +1,301 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.Coordinates;
+import com.foodplatform.backend.model_temp.Donor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes new donations to subscribed NGO clients as Server-Sent Events, so they no longer
+ * have to poll and re-download the whole donor list.
+ *
+ * Events come either from {@link #onDonationCreated} (source "local", a single instance) or
+ * from the MongoDB change stream on donors (source "change-stream", see
+ * {@link DonationChangeStreamListener}), which also sees inserts made by other instances.
+ *
+ * The last few events are kept in a ring buffer. Event ids are "{epoch}-{sequence}", where
+ * the epoch is this process's start time. A client that reconnects with Last-Event-ID gets
+ * everything it missed, as long as that is still in the buffer. If it isn't (the buffer
+ * wrapped or the server restarted), the client gets a "reset" event and should reload the
+ * list once.
+ *
+ * Each client has its own bounded queue of pending events, written out by its own virtual
+ * thread, so a client that stops reading only holds up itself. A client whose queue fills up
+ * is disconnected; when it reconnects it gets what it missed from the buffer, or a "reset".
+ */
+@Profile("!reactive")
+@Service
+public class DonationFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationFeed.class);
+
+    public static final String SOURCE_LOCAL = "local";
+    public static final String SOURCE_CHANGE_STREAM = "change-stream";
+
+    private final String source;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final long epoch = System.currentTimeMillis();
+
+    // Guarded by lock (not synchronized: a virtual thread blocked on a monitor pins its carrier)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Event[] ring;
+    private long nextSequence = 1;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "donation-feed-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Runs the subscribers' drains; a write blocked on a stalled client parks only its own thread
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("donation-feed-", 0).factory());
+
+    public DonationFeed(
+            @Value("${app.donors.feed.source:local}") String source,
+            @Value("${app.donors.feed.replay-size:256}") int replaySize,
+            @Value("${app.donors.feed.timeout:30m}") Duration timeout,
+            @Value("${app.donors.feed.heartbeat:25s}") Duration heartbeat,
+            @Value("${app.donors.feed.max-subscribers:1000}") int maxSubscribers,
+            @Value("${app.donors.feed.queue-capacity:64}") int queueCapacity) {
+        this.source = source;
+        this.ring = new Event[Math.max(1, replaySize)];
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        long beat = heartbeat.toMillis();
+        // Keeps proxies from closing idle connections and notices clients that went away
+        heartbeats.scheduleAtFixedRate(this::heartbeat, beat, beat, TimeUnit.MILLISECONDS);
+    }
+
+    /** Called after a donation is saved; ignored when events come from the change stream. */
+    public void onDonationCreated(Donor donor) {
+        if (SOURCE_LOCAL.equals(source)) {
+            publish(donor);
+        }
+    }
+
+    public void publish(Donor donor) {
+        lock.lock();
+        try {
+            long sequence = nextSequence++;
+            Event event = new Event(sequence, donor);
+            ring[(int) (sequence % ring.length)] = event;
+            // Queued under the lock so every subscriber gets events in sequence order
+            for (Subscriber subscriber : subscribers) {
+                deliverTo(subscriber, event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a feed for one client.
+     *
+     * @param lastEventId the Last-Event-ID the client reconnected with, or null
+     * @throws IllegalStateException when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Filter filter, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many feed subscribers, try again later");
+        }
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, filter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        lock.lock();
+        try {
+            List<Event> missed = new ArrayList<>();
+            boolean reset = lastEventId != null && !collectAfter(lastEventId, missed);
+            // More than the queue holds: a reload is cheaper than a replay that would overflow it
+            if (!reset && missed.stream().filter(e -> filter.matches(e.donor)).count() >= queueCapacity) {
+                reset = true;
+                missed.clear();
+            }
+            subscribers.add(subscriber);
+            // Queued before any later publish(), so replayed events come first
+            if (reset) {
+                enqueue(subscriber, SseEmitter.event().name("reset").data(""));
+            }
+            for (Event event : missed) {
+                deliverTo(subscriber, event);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Adds the buffered events after lastEventId; false when some of them are gone
+    private boolean collectAfter(String lastEventId, List<Event> out) {
+        long after;
+        try {
+            int dash = lastEventId.indexOf('-');
+            if (dash < 0 || Long.parseLong(lastEventId.substring(0, dash)) != epoch) {
+                return false;
+            }
+            after = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        long newest = nextSequence - 1;
+        if (after > newest) {
+            return false;
+        }
+        long oldest = Math.max(1, nextSequence - ring.length);
+        if (after + 1 < oldest) {
+            return false;
+        }
+        for (long sequence = after + 1; sequence <= newest; sequence++) {
+            out.add(ring[(int) (sequence % ring.length)]);
+        }
+        return true;
+    }
+
+    // Overridden in tests
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void deliverTo(Subscriber subscriber, Event event) {
+        if (subscriber.filter.matches(event.donor)) {
+            enqueue(subscriber, SseEmitter.event()
+                    .id(epoch + "-" + event.sequence)
+                    .name("donation")
+                    .data(event.donor, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            // Pending events keep the connection busy anyway; a stalled client fills up and is dropped
+            if (subscriber.queue.isEmpty()) {
+                enqueue(subscriber, SseEmitter.event().comment("keep-alive"));
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            // Completed from a writer thread: complete() waits for a send still blocked on this client
+            log.info("Dropping feed subscriber that fell {} events behind", queueCapacity);
+            close(subscriber);
+            writers.execute(subscriber.emitter::complete);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            writers.execute(() -> drain(subscriber));
+        }
+    }
+
+    // At most one drain per subscriber runs at a time, so its events go out in queue order
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                if (subscriber.closed.get() || !send(subscriber, event)) {
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container calls onError/onCompletion, but don't wait for it
+            close(subscriber);
+            log.debug("Dropping feed subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscribers.remove(subscriber);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        writers.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private record Event(long sequence, Donor donor) {
+    }
+
+    private record Subscriber(SseEmitter emitter, Filter filter, BlockingQueue<SseEmitter.SseEventBuilder> queue,
+                              AtomicBoolean draining, AtomicBoolean closed) {
+
+        Subscriber(SseEmitter emitter, Filter filter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this(emitter, filter, queue, new AtomicBoolean(), new AtomicBoolean());
+        }
+    }
+
+    /**
+     * What a client wants to hear about: an optional foodFor value (case-insensitive) and an
+     * optional circle around a point. Null fields match everything.
+     */
+    public record Filter(String foodFor, Double lat, Double lng, double radiusKm) {
+
+        public static final Filter ALL = new Filter(null, null, null, 0);
+
+        public boolean matches(Donor donor) {
+            if (foodFor != null) {
+                if (donor.getDonation() == null || !foodFor.equalsIgnoreCase(donor.getDonation().getFoodFor())) {
+                    return false;
+                }
+            }
+            if (lat != null && lng != null) {
+                Coordinates coords = donor.getLocation() == null ? null : donor.getLocation().getCoordinates();
+                if (coords == null || coords.getLatitude() == null || coords.getLongitude() == null) {
+                    return false;
+                }
+                return DonationSpatialIndex.haversineKm(lat, lng, coords.getLatitude(), coords.getLongitude()) <= radiusKm;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Status changes of a donation (see {@link DonationStatus}). Each one is a single findAndModify
+ * whose filter includes the statuses the change is allowed from: MongoDB applies it to the
+ * document atomically, so when several NGOs claim the same donation at once exactly one update
+ * matches and the others find nothing. There is no read before the write and no lock.
+ *
+ * The queries and updates are public so the reactive controller can run them on the
+ * ReactiveMongoTemplate.
+ */
+@Service
+public class DonationLifecycleService {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    public DonationLifecycleService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** The claimed donor, or empty when it doesn't exist or isn't available any more. */
+    public Optional<Donor> claim(String donorId, String ngo) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                claimQuery(donorId), claimUpdate(ngo), RETURN_NEW, Donor.class));
+    }
+
+    /** The donor, or empty when it doesn't exist or isn't claimed by this NGO. */
+    public Optional<Donor> markPickedUp(String donorId, String ngo) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                pickUpQuery(donorId, ngo), pickUpUpdate(), RETURN_NEW, Donor.class));
+    }
+
+    // Not once it has expired, even if DonationArchiver hasn't moved it yet
+    public static Query claimQuery(String donorId) {
+        return query(where("_id").is(donorId)
+                .and("donation.status").in(statusesBefore(DonationStatus.CLAIMED))
+                .and("donation.expiresAt").not().lte(new Date()));
+    }
+
+    public static Update claimUpdate(String ngo) {
+        return new Update()
+                .set("donation.status", DonationStatus.CLAIMED.name())
+                .set("donation.claimedBy", ngo)
+                .set("donation.claimedAt", new Date());
+    }
+
+    // Only the NGO that claimed it can mark it as picked up
+    public static Query pickUpQuery(String donorId, String ngo) {
+        return query(where("_id").is(donorId)
+                .and("donation.status").in(statusesBefore(DonationStatus.PICKED_UP))
+                .and("donation.claimedBy").is(ngo));
+    }
+
+    public static Update pickUpUpdate() {
+        return new Update()
+                .set("donation.status", DonationStatus.PICKED_UP.name())
+                .set("donation.pickedUpAt", new Date());
+    }
+
+    // The statuses a donation may move to target from; a missing status counts as AVAILABLE
+    private static List<String> statusesBefore(DonationStatus target) {
+        List<String> names = new ArrayList<>();
+        for (DonationStatus status : DonationStatus.from(target)) {
+            names.add(status.name());
+            if (status == DonationStatus.AVAILABLE) {
+                names.add(null); // $in with null also matches documents without the field
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,459 @@
+package com.foodplatform.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-process grid index over donation locations, answering radius and k-nearest queries
+ * without a database round trip.
+ *
+ * The world is cut into square cells of {@code cellSizeDeg} degrees. Each donation occupies
+ * one slot in a set of parallel primitive arrays (lat, lng, createdAt, expiresAt) and slots of
+ * the same cell are chained through {@code next}, so a query only walks the cells its search
+ * area touches. Only the id, position, creation and expiry time are kept, roughly 48 bytes per
+ * donation. Queries skip donations that have expired; DonationArchiver removes them later.
+ *
+ * Reads share a lock and writes are exclusive; queries are far more frequent than inserts.
+ */
+public class DonationSpatialIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEG_LAT = Math.PI * EARTH_RADIUS_KM / 180.0;
+    private static final int NONE = -1;
+
+    /** A donation returned by a query, with its great-circle distance from the query point. */
+    public record Hit(String id, double latitude, double longitude, long createdAt, double distanceKm) {
+    }
+
+    private final double cellSizeDeg;
+    private final int latCells;
+    private final int lngCells;
+    private final StampedLock lock = new StampedLock();
+
+    // Slot storage. A freed slot is pushed onto the free list (chained through next).
+    private double[] lats;
+    private double[] lngs;
+    private long[] createdAts;
+    private long[] expiresAts;
+    private String[] ids;
+    private long[] cellOf;
+    private int[] next;
+    private int used;
+    private int freeHead = NONE;
+    private int size;
+
+    private final LongIntMap cellHeads = new LongIntMap();
+    private final Map<String, Integer> slotById = new HashMap<>();
+
+    public DonationSpatialIndex(double cellSizeDeg) {
+        if (cellSizeDeg <= 0 || cellSizeDeg > 10) {
+            throw new IllegalArgumentException("cellSizeDeg must be in (0, 10]");
+        }
+        this.cellSizeDeg = cellSizeDeg;
+        this.latCells = (int) Math.ceil(180.0 / cellSizeDeg);
+        this.lngCells = (int) Math.ceil(360.0 / cellSizeDeg);
+        int initial = 1024;
+        lats = new double[initial];
+        lngs = new double[initial];
+        createdAts = new long[initial];
+        expiresAts = new long[initial];
+        ids = new String[initial];
+        cellOf = new long[initial];
+        next = new int[initial];
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Adds a donation that never expires, or moves it if the id is already indexed. */
+    public void put(String id, double latitude, double longitude, long createdAt) {
+        put(id, latitude, longitude, createdAt, Long.MAX_VALUE);
+    }
+
+    /** Adds a donation, or moves it if the id is already indexed; queries skip it from expiresAt on. */
+    public void put(String id, double latitude, double longitude, long createdAt, long expiresAt) {
+        long stamp = lock.writeLock();
+        try {
+            Integer existing = slotById.get(id);
+            if (existing != null) {
+                unlink(existing);
+                release(existing);
+                size--;
+            }
+            int slot = allocate();
+            long cell = cellKey(latIndex(latitude), lngIndex(longitude));
+            lats[slot] = latitude;
+            lngs[slot] = longitude;
+            createdAts[slot] = createdAt;
+            expiresAts[slot] = expiresAt;
+            ids[slot] = id;
+            cellOf[slot] = cell;
+            next[slot] = cellHeads.get(cell, NONE);
+            cellHeads.put(cell, slot);
+            slotById.put(id, slot);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(String id) {
+        long stamp = lock.writeLock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return false;
+            }
+            unlink(slot);
+            release(slot);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Every unexpired donation within {@code radiusKm}, nearest first, at most {@code limit} of them. */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        long now = System.currentTimeMillis();
+        long stamp = lock.readLock();
+        try {
+            int latSpan = (int) Math.ceil(radiusKm / KM_PER_DEG_LAT / cellSizeDeg);
+            int lngSpan = lngSpan(latitude, radiusKm);
+            int centerLat = latIndex(latitude);
+            int centerLng = lngIndex(longitude);
+
+            TopK best = new TopK(Math.min(limit, size));
+            for (int dLat = -latSpan; dLat <= latSpan; dLat++) {
+                int row = centerLat + dLat;
+                if (row < 0 || row >= latCells) {
+                    continue;
+                }
+                for (int dLng = -lngSpan; dLng <= lngSpan; dLng++) {
+                    if (wrapsAround(dLng)) {
+                        continue;
+                    }
+                    scanCell(row, wrapLng(centerLng + dLng), latitude, longitude, radiusKm, now, best);
+                }
+            }
+            return best.toHits();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * The {@code k} unexpired donations closest to the point, nearest first, ignoring anything further
+     * than {@code maxRadiusKm}. Searches rings of cells outwards and stops as soon as no
+     * unvisited cell can hold anything closer than the current k-th result.
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        long now = System.currentTimeMillis();
+        long stamp = lock.readLock();
+        try {
+            TopK best = new TopK(Math.min(k, size));
+            int centerLat = latIndex(latitude);
+            int centerLng = lngIndex(longitude);
+            int latSpan = (int) Math.ceil(maxRadiusKm / KM_PER_DEG_LAT / cellSizeDeg);
+            int maxRing = Math.max(latSpan, lngSpan(latitude, maxRadiusKm));
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // Cells in this ring are at least (ring - 1) cell widths away from the point.
+                // Cells narrow towards the poles, so measure the width at the ring's poleward edge.
+                double edgeLat = Math.min(90.0, Math.abs(latitude) + (ring + 1) * cellSizeDeg);
+                double cellKm = cellSizeDeg * KM_PER_DEG_LAT * Math.cos(Math.toRadians(edgeLat));
+                if (best.isFull() && (ring - 1) * cellKm > best.worst()) {
+                    break;
+                }
+                for (int dLat = -ring; dLat <= ring; dLat++) {
+                    int row = centerLat + dLat;
+                    if (row < 0 || row >= latCells) {
+                        continue;
+                    }
+                    boolean edgeRow = dLat == -ring || dLat == ring;
+                    int step = edgeRow ? 1 : Math.max(2 * ring, 1);
+                    for (int dLng = -ring; dLng <= ring; dLng += step) {
+                        if (wrapsAround(dLng)) {
+                            continue;
+                        }
+                        scanCell(row, wrapLng(centerLng + dLng), latitude, longitude, maxRadiusKm, now, best);
+                    }
+                }
+            }
+            return best.toHits();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void scanCell(int row, int col, double latitude, double longitude, double radiusKm, long now, TopK best) {
+        for (int slot = cellHeads.get(cellKey(row, col), NONE); slot != NONE; slot = next[slot]) {
+            if (expiresAts[slot] <= now) {
+                continue;
+            }
+            double d = haversineKm(latitude, longitude, lats[slot], lngs[slot]);
+            if (d <= radiusKm) {
+                best.offer(slot, d);
+            }
+        }
+    }
+
+    static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private int lngSpan(double latitude, double radiusKm) {
+        // Widest point of the search circle, capped at the whole parallel near the poles
+        double edgeLat = Math.min(90.0, Math.abs(latitude) + radiusKm / KM_PER_DEG_LAT);
+        double cos = Math.cos(Math.toRadians(edgeLat));
+        if (cos < 1e-6) {
+            return lngCells / 2;
+        }
+        double span = Math.ceil(radiusKm / (KM_PER_DEG_LAT * cos) / cellSizeDeg);
+        return (int) Math.min(span, lngCells / 2);
+    }
+
+    // Offsets past half the globe would visit a column twice from the other side
+    private boolean wrapsAround(int dLng) {
+        return dLng < -(lngCells - 1) / 2 || dLng > lngCells / 2;
+    }
+
+    private int latIndex(double latitude) {
+        int row = (int) Math.floor((latitude + 90.0) / cellSizeDeg);
+        return Math.max(0, Math.min(latCells - 1, row));
+    }
+
+    private int lngIndex(double longitude) {
+        return wrapLng((int) Math.floor((longitude + 180.0) / cellSizeDeg));
+    }
+
+    private int wrapLng(int col) {
+        int wrapped = col % lngCells;
+        return wrapped < 0 ? wrapped + lngCells : wrapped;
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        if (used == lats.length) {
+            int capacity = lats.length * 2;
+            lats = Arrays.copyOf(lats, capacity);
+            lngs = Arrays.copyOf(lngs, capacity);
+            createdAts = Arrays.copyOf(createdAts, capacity);
+            expiresAts = Arrays.copyOf(expiresAts, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            cellOf = Arrays.copyOf(cellOf, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return used++;
+    }
+
+    private void release(int slot) {
+        ids[slot] = null;
+        next[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    private void unlink(int slot) {
+        long cell = cellOf[slot];
+        int head = cellHeads.get(cell, NONE);
+        if (head == slot) {
+            if (next[slot] == NONE) {
+                cellHeads.remove(cell);
+            } else {
+                cellHeads.put(cell, next[slot]);
+            }
+            return;
+        }
+        for (int prev = head; prev != NONE; prev = next[prev]) {
+            if (next[prev] == slot) {
+                next[prev] = next[slot];
+                return;
+            }
+        }
+    }
+
+    /** Bounded max-heap of (distance, slot) keeping the k smallest distances. */
+    private final class TopK {
+        private final int capacity;
+        private final double[] dist;
+        private final int[] slots;
+        private int count;
+
+        TopK(int capacity) {
+            this.capacity = Math.max(0, capacity);
+            this.dist = new double[this.capacity];
+            this.slots = new int[this.capacity];
+        }
+
+        boolean isFull() {
+            return count == capacity;
+        }
+
+        double worst() {
+            return count == 0 ? Double.POSITIVE_INFINITY : dist[0];
+        }
+
+        void offer(int slot, double d) {
+            if (capacity == 0) {
+                return;
+            }
+            if (count < capacity) {
+                int i = count++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (dist[parent] >= d) {
+                        break;
+                    }
+                    dist[i] = dist[parent];
+                    slots[i] = slots[parent];
+                    i = parent;
+                }
+                dist[i] = d;
+                slots[i] = slot;
+            } else if (d < dist[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= count) {
+                        break;
+                    }
+                    if (child + 1 < count && dist[child + 1] > dist[child]) {
+                        child++;
+                    }
+                    if (dist[child] <= d) {
+                        break;
+                    }
+                    dist[i] = dist[child];
+                    slots[i] = slots[child];
+                    i = child;
+                }
+                dist[i] = d;
+                slots[i] = slot;
+            }
+        }
+
+        List<Hit> toHits() {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(dist[a], dist[b]));
+            List<Hit> hits = new ArrayList<>(count);
+            for (int i : order) {
+                int slot = slots[i];
+                hits.add(new Hit(ids[slot], lats[slot], lngs[slot], createdAts[slot], dist[i]));
+            }
+            return hits;
+        }
+    }
+
+    /** Open-addressing long -> int map for the cell heads, avoids boxing a Long per lookup. */
+    private static final class LongIntMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = newKeys(256);
+        private int[] values = new int[256];
+        private int count;
+
+        private static long[] newKeys(int capacity) {
+            long[] k = new long[capacity];
+            Arrays.fill(k, EMPTY);
+            return k;
+        }
+
+        int get(long key, int missing) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == EMPTY) {
+                    return missing;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((count + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                if (keys[i] == EMPTY) {
+                    keys[i] = key;
+                    values[i] = value;
+                    count++;
+                    return;
+                }
+            }
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int gap = i;
+            for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = mix(keys[j]) & mask;
+                boolean movable = gap <= j ? (home <= gap || home > j) : (home <= gap && home > j);
+                if (movable) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = EMPTY;
+            count--;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new int[capacity];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
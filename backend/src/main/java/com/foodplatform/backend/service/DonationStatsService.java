@@ -0,0 +1,120 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.dto.ServingsBucket;
+import com.foodplatform.backend.dto.ServingsQuery;
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Servings totals for the ops dashboard, computed by MongoDB from Donation.amount: what is
+ * available right now per food type or per grid cell, and what was offered per hour over the
+ * last hours (donors and donors_archive, since most of those donations are gone by now). Only
+ * the groups come back to the app.
+ *
+ * The pipelines and the reading of their results are public so the reactive controller can run
+ * them on the ReactiveMongoTemplate.
+ */
+@Service
+public class DonationStatsService {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final MongoTemplate mongoTemplate;
+
+    public DonationStatsService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public List<ServingsBucket> servings(ServingsQuery query) {
+        List<Document> groups = mongoTemplate.aggregate(aggregation(query, new Date()),
+                mongoTemplate.getCollectionName(Donor.class), Document.class).getMappedResults();
+        return groups.stream().map(group -> toBucket(query, group)).toList();
+    }
+
+    public static Aggregation aggregation(ServingsQuery query, Date now) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        Object key;
+        Document sort;
+        switch (query.by()) {
+            case HOUR -> {
+                Criteria offered = where("createdAt").gte(new Date(now.getTime() - query.hours() * 3_600_000L));
+                if (query.foodFor() != null) {
+                    offered = offered.and("donation.foodFor").is(query.foodFor());
+                }
+                stages.add(match(offered));
+                stages.add(Aggregation.stage(new Document("$unionWith", new Document("coll", DonationArchiver.ARCHIVE_COLLECTION)
+                        .append("pipeline", List.of(match(offered).toDocument(Aggregation.DEFAULT_CONTEXT))))));
+                key = new Document("$dateToString", new Document("format", "%Y-%m-%dT%H:00:00Z").append("date", "$createdAt"));
+                sort = new Document("_id", 1);
+            }
+            case AREA -> {
+                stages.add(match(available(query, now).and("position").exists(true)));
+                double cellDegrees = query.cellKm() / KM_PER_DEGREE;
+                // GeoJSON coordinates are [longitude, latitude]
+                key = new Document("lat", cell(new Document("$arrayElemAt", List.of("$position.coordinates", 1)), cellDegrees))
+                        .append("lng", cell(new Document("$arrayElemAt", List.of("$position.coordinates", 0)), cellDegrees));
+                sort = new Document("servings", -1);
+            }
+            default -> {
+                stages.add(match(available(query, now)));
+                key = "$donation.foodType";
+                sort = new Document("servings", -1);
+            }
+        }
+        stages.add(Aggregation.stage(new Document("$group", new Document("_id", key)
+                .append("donations", new Document("$sum", 1))
+                .append("servings", new Document("$sum", "$donation.amount.servings"))
+                .append("unmeasured", new Document("$sum", new Document("$cond", List.of(
+                        new Document("$eq", Arrays.asList(new Document("$ifNull", Arrays.asList("$donation.amount.servings", null)), null)),
+                        1, 0)))))));
+        stages.add(Aggregation.stage(new Document("$sort", sort)));
+        return Aggregation.newAggregation(stages);
+    }
+
+    // Donations that can still be claimed, as in DonorSearchService
+    private static Criteria available(ServingsQuery query, Date now) {
+        Criteria criteria = where("donation.expiresAt").not().lte(now)
+                .and("donation.status").in(Arrays.asList(DonationStatus.AVAILABLE.name(), null));
+        if (query.foodFor() != null) {
+            criteria = criteria.and("donation.foodFor").is(query.foodFor());
+        }
+        return criteria;
+    }
+
+    // Index of the grid cell a coordinate falls in; cells are square in degrees, so they get
+    // narrower away from the equator, which is fine for a dashboard
+    private static Document cell(Object coordinate, double cellDegrees) {
+        return new Document("$floor", new Document("$divide", List.of(coordinate, cellDegrees)));
+    }
+
+    public static ServingsBucket toBucket(ServingsQuery query, Document group) {
+        long donations = group.get("donations", Number.class).longValue();
+        long servings = group.get("servings", Number.class).longValue();
+        long unmeasured = group.get("unmeasured", Number.class).longValue();
+        if (query.by() == ServingsQuery.Grouping.AREA) {
+            Document cell = group.get("_id", Document.class);
+            double cellDegrees = query.cellKm() / KM_PER_DEGREE;
+            double lat = (cell.get("lat", Number.class).doubleValue() + 0.5) * cellDegrees;
+            double lng = (cell.get("lng", Number.class).doubleValue() + 0.5) * cellDegrees;
+            String key = String.format(Locale.ROOT, "%.4f,%.4f", lat, lng);
+            return new ServingsBucket(key, lat, lng, donations, servings, unmeasured);
+        }
+        Object key = group.get("_id");
+        return new ServingsBucket(key == null ? null : key.toString(), null, null, donations, servings, unmeasured);
+    }
+}
@@ -0,0 +1,130 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.dto.DonorSearch;
+import com.foodplatform.backend.dto.DonorSearchResponse;
+import com.foodplatform.backend.dto.NearbyDonor;
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.count;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.facet;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.limit;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.skip;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * GET /api/donors/search as one aggregation: every filter is a criterion on the first stage
+ * ($geoNear with a query when there is a location, $match otherwise), so MongoDB filters with
+ * its indexes (2dsphere, foodFor_status_createdAt, donorType_createdAt) and only the page
+ * comes back. A $facet returns the total count with it, in the same round trip.
+ *
+ * The aggregation and the reading of its result are public so the reactive controller can run
+ * the same search on the ReactiveMongoTemplate.
+ */
+@Service
+public class DonorSearchService {
+
+    static final String DISTANCE = "distanceKm";
+
+    private final MongoTemplate mongoTemplate;
+
+    public DonorSearchService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public DonorSearchResponse search(DonorSearch search) {
+        Document result = mongoTemplate.aggregate(aggregation(search), Donor.class, Document.class).getUniqueMappedResult();
+        return toResponse(search, result, mongoTemplate.getConverter());
+    }
+
+    public static Aggregation aggregation(DonorSearch search) {
+        Criteria criteria = criteria(search, new Date());
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (search.hasLocation()) {
+            // Must be the first stage; results come out nearest first
+            NearQuery near = NearQuery.near(new GeoJsonPoint(search.lng(), search.lat()))
+                    .spherical(true)
+                    .maxDistance(new Distance(search.radiusKm(), Metrics.KILOMETERS))
+                    .query(new Query(criteria));
+            stages.add(Aggregation.geoNear(near, DISTANCE));
+        } else {
+            stages.add(match(criteria));
+        }
+        // Sorting before the $facet lets MongoDB use the index order; inside it, it couldn't
+        if (search.order() == DonorSearch.Order.NEWEST) {
+            stages.add(sort(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id"))));
+        }
+        stages.add(facet(count().as("n")).as("total")
+                .and(skip((long) search.page() * search.size()),
+                        limit(search.size()),
+                        // Legacy inline image bytes; project() would drop the "donation." prefix
+                        Aggregation.stage(new Document("$unset", "donation.foodImage.image")))
+                .as("items"));
+        return Aggregation.newAggregation(stages);
+    }
+
+    static Criteria criteria(DonorSearch search, Date now) {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(where("donation.expiresAt").not().lte(now));
+        if (search.status() == DonationStatus.AVAILABLE) {
+            // Documents from before statuses existed have none
+            filters.add(where("donation.status").in(Arrays.asList(DonationStatus.AVAILABLE.name(), null)));
+        } else if (search.status() != null) {
+            filters.add(where("donation.status").is(search.status().name()));
+        }
+        if (search.foodFor() != null) {
+            filters.add(where("donation.foodFor").is(search.foodFor()));
+        }
+        if (search.foodType() != null) {
+            filters.add(where("donation.foodType").is(search.foodType()));
+        }
+        if (search.donorType() != null) {
+            filters.add(where("donorType").is(search.donorType()));
+        }
+        if (search.createdAfter() != null) {
+            filters.add(where("createdAt").gte(search.createdAfter()));
+        }
+        if (search.createdBefore() != null) {
+            filters.add(where("createdAt").lt(search.createdBefore()));
+        }
+        return new Criteria().andOperator(filters);
+    }
+
+    public static DonorSearchResponse toResponse(DonorSearch search, Document result, MongoConverter converter) {
+        long total = 0;
+        List<Object> items = new ArrayList<>();
+        if (result != null) {
+            List<Document> count = result.getList("total", Document.class, List.of());
+            if (!count.isEmpty()) {
+                total = count.get(0).get("n", Number.class).longValue();
+            }
+            for (Document document : result.getList("items", Document.class, List.of())) {
+                Donor donor = converter.read(Donor.class, document);
+                items.add(search.hasLocation()
+                        ? new NearbyDonor(donor, document.get(DISTANCE, Number.class).doubleValue())
+                        : donor);
+            }
+        }
+        return new DonorSearchResponse(total, search.page(), search.size(), items);
+    }
+}
@@ -0,0 +1,127 @@
+package com.foodplatform.backend.service;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Phones store photos sideways and put the rotation in the EXIF Orientation tag. Re-encoding
+ * drops EXIF, so the rotation has to be applied to the pixels first or the photo ends up on
+ * its side.
+ */
+final class ExifOrientation {
+
+    static final int NORMAL = 1;
+
+    private static final int SOI = 0xD8;
+    private static final int APP1 = 0xE1;
+    private static final int SOS = 0xDA;
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * The Orientation tag (1-8) from the start of a JPEG file, or {@link #NORMAL} when there is
+     * none. Walks the marker segments itself: ImageIO's metadata reader rejects files whose
+     * APP1 comes before the JFIF APP0, which some phones write.
+     */
+    static int read(byte[] head) {
+        int length = head.length;
+        if (length < 4 || (head[0] & 0xFF) != 0xFF || (head[1] & 0xFF) != SOI) {
+            return NORMAL;
+        }
+        int i = 2;
+        while (i + 4 <= length && (head[i] & 0xFF) == 0xFF) {
+            int marker = head[i + 1] & 0xFF;
+            if (marker == SOS) {
+                break; // metadata segments all come before the image data
+            }
+            int segment = (head[i + 2] & 0xFF) << 8 | (head[i + 3] & 0xFF);
+            if (segment < 2) {
+                break;
+            }
+            if (marker == APP1 && i + 2 + segment <= length) {
+                byte[] data = Arrays.copyOfRange(head, i + 4, i + 2 + segment);
+                int orientation = fromExif(data);
+                if (orientation != 0) {
+                    return orientation;
+                }
+            }
+            i += 2 + segment;
+        }
+        return NORMAL;
+    }
+
+    // APP1 payload: "Exif\0\0", then a TIFF header and IFD0, which holds the Orientation tag
+    static int fromExif(byte[] data) {
+        if (data.length < 14 || data[0] != 'E' || data[1] != 'x' || data[2] != 'i' || data[3] != 'f') {
+            return 0;
+        }
+        int tiff = 6;
+        boolean little = data[tiff] == 'I' && data[tiff + 1] == 'I';
+        int ifd = tiff + (int) u32(data, tiff + 4, little);
+        if (ifd < tiff || ifd + 2 > data.length) {
+            return 0;
+        }
+        int entries = u16(data, ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > data.length) {
+                return 0;
+            }
+            if (u16(data, entry, little) == ORIENTATION_TAG) {
+                int value = u16(data, entry + 8, little);
+                return value >= 1 && value <= 8 ? value : 0;
+            }
+        }
+        return 0;
+    }
+
+    /** Whether the orientation swaps width and height. */
+    static boolean transposes(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    /** The image turned upright; returns the same image for {@link #NORMAL}. */
+    static BufferedImage apply(BufferedImage image, int orientation) {
+        if (orientation <= NORMAL || orientation > 8) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> { t.rotate(-Math.PI / 2); t.scale(-1, 1); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.scale(-1, 1); t.translate(-h, 0); t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+            case 8 -> { t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+            default -> { }
+        }
+        boolean swap = transposes(orientation);
+        BufferedImage out = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.drawImage(image, t, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private static int u16(byte[] b, int i, boolean little) {
+        return little
+                ? (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8
+                : (b[i] & 0xFF) << 8 | (b[i + 1] & 0xFF);
+    }
+
+    private static long u32(byte[] b, int i, boolean little) {
+        return little
+                ? (u16(b, i, true) & 0xFFFFL) | (long) u16(b, i + 2, true) << 16
+                : (long) u16(b, i, false) << 16 | (u16(b, i + 2, false) & 0xFFFFL);
+    }
+}
@@ -0,0 +1,51 @@
+package com.foodplatform.backend.service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Service
+@ConditionalOnProperty(name = "app.images.store", havingValue = "gridfs", matchIfMissing = true)
+public class GridFsImageStore implements ImageStore {
+
+    private final GridFsTemplate gridFsTemplate;
+
+    public GridFsImageStore(GridFsTemplate gridFsTemplate) {
+        this.gridFsTemplate = gridFsTemplate;
+    }
+
+    @Override
+    public String store(InputStream content, String contentType) {
+        // GridFS chunks the stream (255KB per chunk), so the whole image is never held in memory
+        ObjectId id = gridFsTemplate.store(content, null, contentType);
+        return id.toHexString();
+    }
+
+    @Override
+    public Optional<Resource> load(String id) {
+        if (!ObjectId.isValid(id)) {
+            return Optional.empty();
+        }
+        GridFSFile file = gridFsTemplate.findOne(query(where("_id").is(new ObjectId(id))));
+        if (file == null) {
+            return Optional.empty();
+        }
+        return Optional.of(gridFsTemplate.getResource(file));
+    }
+
+    @Override
+    public void delete(String id) {
+        if (ObjectId.isValid(id)) {
+            gridFsTemplate.delete(query(where("_id").is(new ObjectId(id))));
+        }
+    }
+}
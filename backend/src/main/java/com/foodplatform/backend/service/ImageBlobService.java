@@ -0,0 +1,114 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.FoodImage;
+import com.foodplatform.backend.model_temp.ImageBlob;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HexFormat;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Content-addressed image storage on top of the {@link ImageStore}. Every distinct image is
+ * stored once and recorded in image_blobs under its SHA-256, with a count of the donors that
+ * reference it; the same photo uploaded again reuses the stored copy.
+ *
+ * An upload's hash is only known once all of it has been read, so uploads are written first and
+ * the copy is dropped when the content turns out to be known already. Images that are
+ * generated from bytes in memory are looked up before they are written.
+ */
+@Service
+public class ImageBlobService {
+
+    private final ImageStore imageStore;
+    private final MongoTemplate mongoTemplate;
+
+    public ImageBlobService(ImageStore imageStore, MongoTemplate mongoTemplate) {
+        this.imageStore = imageStore;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Takes a reference on the content of an image that was just stored. When the same content
+     * is stored already, the new copy is deleted and the image points at the existing one.
+     */
+    public FoodImage acquire(FoodImage stored) {
+        ImageBlob blob = increment(stored.getSha256(), stored.getImageId(), stored.getContentType(), stored.getSize());
+        if (!blob.getImageId().equals(stored.getImageId())) {
+            imageStore.delete(stored.getImageId());
+            stored.setImageId(blob.getImageId());
+        }
+        return stored;
+    }
+
+    /** Stores the bytes unless the same content is there already; returns the image id. */
+    public String store(byte[] content, String contentType) throws IOException {
+        String sha256 = HexFormat.of().formatHex(ImageUploader.sha256().digest(content));
+        ImageBlob existing = mongoTemplate.findAndModify(
+                query(where("_id").is(sha256)),
+                new Update().inc("refCount", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                ImageBlob.class);
+        if (existing != null) {
+            return existing.getImageId();
+        }
+        FoodImage stored = new FoodImage(imageStore.store(new ByteArrayInputStream(content), contentType),
+                contentType, content.length);
+        stored.setSha256(sha256);
+        return acquire(stored).getImageId();
+    }
+
+    /**
+     * Drops a reference to the image; the bytes are deleted with the last one. Images stored
+     * before deduplication have no image_blobs entry and are deleted right away.
+     */
+    public void release(String imageId) {
+        if (imageId == null) {
+            return;
+        }
+        ImageBlob blob = mongoTemplate.findAndModify(
+                query(where("imageId").is(imageId)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                ImageBlob.class);
+        if (blob == null) {
+            imageStore.delete(imageId);
+            return;
+        }
+        if (blob.getRefCount() > 0) {
+            return;
+        }
+        // Only removed if nobody took a new reference in the meantime; after that, acquire()
+        // can no longer find this blob and stores its own copy
+        boolean removed = mongoTemplate.remove(
+                query(where("_id").is(blob.getSha256()).and("refCount").lte(0)),
+                ImageBlob.class).getDeletedCount() > 0;
+        if (removed) {
+            imageStore.delete(imageId);
+        }
+    }
+
+    private ImageBlob increment(String sha256, String imageId, String contentType, long size) {
+        Update update = new Update()
+                .inc("refCount", 1)
+                .setOnInsert("imageId", imageId)
+                .setOnInsert("contentType", contentType)
+                .setOnInsert("size", size)
+                .setOnInsert("createdAt", new Date());
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        try {
+            return mongoTemplate.findAndModify(query(where("_id").is(sha256)), update, options, ImageBlob.class);
+        } catch (DuplicateKeyException e) {
+            // Two uploads of the same new content raced on the insert; the other one won
+            return mongoTemplate.findAndModify(query(where("_id").is(sha256)), update, options, ImageBlob.class);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.model_temp.FoodImage;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Turns an uploaded photo into what the app actually serves, after the upload has returned:
+ * a JPEG bounded to app.images.display.max-edge that replaces the original, and a small
+ * thumbnail for lists. Both are re-encoded from pixels, so EXIF (GPS position, camera serial)
+ * is gone; the EXIF rotation is applied first.
+ *
+ * Runs on a fixed pool of platform threads with a bounded queue: the work is CPU and memory
+ * heavy, so it must not grow with the number of uploads. When the queue is full the upload
+ * stays pending (served as uploaded, not cached) and {@link #retryPending} queues it again
+ * later. An upload that turns out not to decode is removed from its donation. Queue depth and
+ * pool usage are published as the executor.* metrics tagged name=imageProcessing.
+ */
+@Service
+public class ImageProcessingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageProcessingService.class);
+
+    private static final String JPEG = "image/jpeg";
+
+    // APP1 (EXIF) is capped at 64KB and comes right after SOI, or after a small APP0
+    private static final int EXIF_HEAD = 128 * 1024;
+
+    private final ImageStore imageStore;
+    private final ImageBlobService imageBlobs;
+    private final MongoTemplate mongoTemplate;
+    private final int thumbnailEdge;
+    private final int displayEdge;
+    private final float jpegQuality;
+    private final long maxPixels;
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter rejected;
+    // Donors whose image is queued or being processed, so a retry doesn't queue it twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageProcessingService(ImageStore imageStore,
+                                  ImageBlobService imageBlobs,
+                                  MongoTemplate mongoTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.images.processing.threads:2}") int threads,
+                                  @Value("${app.images.processing.queue-capacity:200}") int queueCapacity,
+                                  @Value("${app.images.thumbnail.max-edge:400}") int thumbnailEdge,
+                                  @Value("${app.images.display.max-edge:1600}") int displayEdge,
+                                  @Value("${app.images.jpeg-quality:0.8}") float jpegQuality,
+                                  @Value("${app.images.max-pixels:50000000}") long maxPixels) {
+        this.imageStore = imageStore;
+        this.imageBlobs = imageBlobs;
+        this.mongoTemplate = mongoTemplate;
+        this.thumbnailEdge = thumbnailEdge;
+        this.displayEdge = displayEdge;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+
+        // Decode in memory; the default disk cache writes a temp file per image
+        ImageIO.setUseCache(false);
+
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-processing-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "imageProcessing");
+        this.rejected = Counter.builder("image.processing.rejected")
+                .description("Uploads left pending because the processing queue was full")
+                .register(meterRegistry);
+    }
+
+    /** Queues the donor's image for processing; returns immediately. */
+    public void submit(Donor donor) {
+        FoodImage image = donor.getDonation() == null ? null : donor.getDonation().getFoodImage();
+        if (image == null || image.getImageId() == null || image.isProcessed()) {
+            return;
+        }
+        submit(donor.getId(), image.getImageId());
+    }
+
+    // False when the queue is full
+    private boolean submit(String donorId, String imageId) {
+        if (!inFlight.add(donorId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(donorId, imageId);
+                } finally {
+                    inFlight.remove(donorId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(donorId);
+            rejected.increment();
+            log.warn("Image processing queue full, image {} of donor {} stays pending", imageId, donorId);
+            return false;
+        }
+    }
+
+    /**
+     * Queues images still waiting for processing: uploads that found the queue full, failed
+     * for a passing reason, or were pending when the server stopped. Takes no more than the
+     * queue has room for.
+     */
+    @Scheduled(initialDelayString = "${app.images.processing.retry-initial-delay:1m}",
+            fixedDelayString = "${app.images.processing.retry-interval:5m}")
+    public void retryPending() {
+        try {
+            int room = pool.getQueue().remainingCapacity();
+            if (room == 0) {
+                return;
+            }
+            for (Donor donor : mongoTemplate.find(pendingImages(room), Donor.class)) {
+                if (!submit(donor.getId(), donor.getDonation().getFoodImage().getImageId())) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not queue pending images: {}", e.getMessage());
+        }
+    }
+
+    /** The oldest pending images; answered by the partial "foodImage_pending" index on Donor. */
+    public static Query pendingImages(int limit) {
+        Query pending = query(where("donation.foodImage.processed").is(false)
+                .and("donation.foodImage.imageId").ne(null))
+                .with(Sort.by("_id"))
+                .limit(limit);
+        pending.fields().include("donation.foodImage");
+        return pending;
+    }
+
+    /**
+     * Marks images stored before the processed flag existed as pending, so the partial index
+     * sees them. Images processed back then have a thumbnail and are left alone. One update at
+     * startup, done by MongoDB; running it again finds nothing to do.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void markUnflaggedPending() {
+        try {
+            long updated = mongoTemplate.updateMulti(
+                    query(where("donation.foodImage.imageId").ne(null)
+                            .and("donation.foodImage.processed").exists(false)
+                            .and("donation.foodImage.thumbnailId").is(null)),
+                    new Update().set("donation.foodImage.processed", false),
+                    Donor.class).getModifiedCount();
+            if (updated > 0) {
+                log.info("Marked {} unprocessed images from before the processed flag as pending", updated);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not mark unprocessed images as pending: {}", e.getMessage());
+        }
+    }
+
+    void process(String donorId, String imageId) {
+        try {
+            Optional<Resource> original = imageStore.load(imageId);
+            if (original.isEmpty()) {
+                // The stored file is gone: nothing to serve, and retrying would never end
+                reject(donorId, imageId);
+                return;
+            }
+            BufferedImage upright;
+            try (InputStream in = original.get().getInputStream()) {
+                upright = decode(in);
+            } catch (IIOException | RuntimeException e) {
+                // Corrupt, truncated or too large: trying again won't help. ImageIO readers also
+                // fail on corrupt input with unchecked exceptions (IndexOutOfBounds and the like)
+                log.debug("Image {} could not be decoded: {}", imageId, e.toString());
+                upright = null;
+            }
+            if (upright == null) {
+                reject(donorId, imageId);
+                return;
+            }
+
+            BufferedImage display = scaleToFit(upright, displayEdge);
+            byte[] displayJpeg = encodeJpeg(display);
+            byte[] thumbnailJpeg = encodeJpeg(scaleToFit(display, thumbnailEdge));
+
+            // The same photo uploaded again encodes to the same bytes, so these are shared too
+            String displayId = imageBlobs.store(displayJpeg, JPEG);
+            String thumbnailId = imageBlobs.store(thumbnailJpeg, JPEG);
+
+            // Only if the donor still points at the image we processed
+            UpdateResult result = mongoTemplate.updateFirst(
+                    query(where("_id").is(donorId).and("donation.foodImage.imageId").is(imageId)),
+                    new Update()
+                            .set("donation.foodImage.imageId", displayId)
+                            .set("donation.foodImage.contentType", JPEG)
+                            .set("donation.foodImage.size", (long) displayJpeg.length)
+                            .set("donation.foodImage.sha256", HexFormat.of().formatHex(ImageUploader.sha256().digest(displayJpeg)))
+                            .set("donation.foodImage.thumbnailId", thumbnailId)
+                            .set("donation.foodImage.width", display.getWidth())
+                            .set("donation.foodImage.height", display.getHeight())
+                            .set("donation.foodImage.processed", true),
+                    Donor.class);
+            if (result.getMatchedCount() == 0) {
+                imageBlobs.release(displayId);
+                imageBlobs.release(thumbnailId);
+                return;
+            }
+            // The original still has its EXIF, don't keep it around
+            imageBlobs.release(imageId);
+        } catch (IOException | RuntimeException e) {
+            // Left pending for retryPending()
+            log.warn("Could not process image {} of donor {}: {}", imageId, donorId, e.toString());
+        }
+    }
+
+    // An image that can't be stripped of its EXIF is not served at all
+    private void reject(String donorId, String imageId) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                query(where("_id").is(donorId).and("donation.foodImage.imageId").is(imageId)),
+                new Update().unset("donation.foodImage"),
+                Donor.class);
+        if (result.getModifiedCount() > 0) {
+            imageBlobs.release(imageId);
+            log.warn("Removed image {} from donor {}: it is missing or could not be decoded", imageId, donorId);
+        }
+    }
+
+    // Decodes just enough pixels for the display size, upright. Null for unsupported formats.
+    BufferedImage decode(InputStream in) throws IOException {
+        // EXIF sits in the first segments of the file: peek at them, then decode from the start
+        BufferedInputStream buffered = new BufferedInputStream(in, EXIF_HEAD);
+        buffered.mark(EXIF_HEAD);
+        byte[] head = buffered.readNBytes(EXIF_HEAD);
+        buffered.reset();
+        int orientation = ExifOrientation.read(head);
+
+        try (ImageInputStream iis = ImageIO.createImageInputStream(buffered)) {
+            Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // Checked from the header, before anything is decoded
+                if ((long) width * height > maxPixels) {
+                    throw new IIOException("Image too large: " + width + "x" + height);
+                }
+
+                // Skip source pixels we'd throw away when scaling down anyway
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / displayEdge);
+                param.setSourceSubsampling(step, step, 0, 0);
+
+                return ExifOrientation.apply(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Scales down so the longer edge fits, halving in steps for a smoother result; always RGB
+    static BufferedImage scaleToFit(BufferedImage image, int maxEdge) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        do {
+            int w = Math.max(targetWidth, current.getWidth() / 2);
+            int h = Math.max(targetHeight, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                // Transparent areas (PNG, GIF) become white instead of black
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, w, h);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (current.getWidth() > targetWidth || current.getHeight() > targetHeight);
+        return current;
+    }
+
+    // No metadata is passed to the writer, so the output carries no EXIF
+    byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package com.foodplatform.backend.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Blob storage for donation images. Donor documents only keep the id returned by {@link #store},
+ * the bytes themselves live here and are streamed back by the image endpoint.
+ *
+ * Selected with {@code app.images.store} ("gridfs" by default, or "local").
+ */
+public interface ImageStore {
+
+    /** Streams the content into the store and returns the id to reference it by. */
+    String store(InputStream content, String contentType) throws IOException;
+
+    /** A readable resource for the image, or empty if the id is unknown. */
+    Optional<Resource> load(String id) throws IOException;
+
+    void delete(String id);
+}
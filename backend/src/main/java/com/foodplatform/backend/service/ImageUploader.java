@@ -0,0 +1,145 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.metrics.ImageTraffic;
+import com.foodplatform.backend.model_temp.FoodImage;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Stores an uploaded image straight from its input stream: the bytes pass through a small
+ * buffer on their way to the {@link ImageStore}, and the SHA-256 and size are computed as they
+ * go by, so an upload never sits on the heap as a whole.
+ *
+ * The content type is taken from the first bytes, not from what the client claims; anything
+ * that isn't a known image format, or that ImageIO can't decode (so the
+ * {@link ImageProcessingService} couldn't strip its EXIF), is rejected before it is stored.
+ * Content that is stored already is deduplicated by the {@link ImageBlobService}.
+ */
+@Service
+public class ImageUploader {
+
+    // Enough for every signature in sniff()
+    private static final int SNIFF_BYTES = 12;
+
+    private static final int BUFFER = 8192;
+
+    private final ImageStore imageStore;
+    private final ImageBlobService imageBlobs;
+    private final ImageTraffic imageTraffic;
+
+    public ImageUploader(ImageStore imageStore, ImageBlobService imageBlobs, ImageTraffic imageTraffic) {
+        this.imageStore = imageStore;
+        this.imageBlobs = imageBlobs;
+        this.imageTraffic = imageTraffic;
+    }
+
+    /**
+     * The stored image, or empty when the stream has no bytes (an empty file field).
+     *
+     * @throws IllegalArgumentException when the content isn't a supported image format
+     */
+    public Optional<FoodImage> upload(InputStream content) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(content, BUFFER);
+        in.mark(SNIFF_BYTES);
+        byte[] head = in.readNBytes(SNIFF_BYTES);
+        in.reset();
+        if (head.length == 0) {
+            return Optional.empty();
+        }
+        String contentType = sniff(head);
+        // WebP and HEIC need an ImageIO plugin
+        if (contentType == null || !ImageIO.getImageReadersByMIMEType(contentType).hasNext()) {
+            throw new IllegalArgumentException("Unsupported image type. Use JPEG, PNG or GIF.");
+        }
+
+        MessageDigest sha256 = sha256();
+        CountingInputStream counted = new CountingInputStream(new DigestInputStream(in, sha256));
+        String imageId = imageStore.store(counted, contentType);
+
+        imageTraffic.received(counted.count);
+        FoodImage image = new FoodImage(imageId, contentType, counted.count);
+        image.setSha256(HexFormat.of().formatHex(sha256.digest()));
+        return Optional.of(imageBlobs.acquire(image));
+    }
+
+    /** The image type the leading bytes belong to, or null when they match none. */
+    static String sniff(byte[] head) {
+        if (startsWith(head, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(head, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(head, 0, 'R', 'I', 'F', 'F') && startsWith(head, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        // ISO base media file: a box size, then "ftyp" and the brand
+        if (startsWith(head, 4, 'f', 't', 'y', 'p')
+                && (startsWith(head, 8, 'h', 'e', 'i', 'c') || startsWith(head, 8, 'h', 'e', 'i', 'x')
+                || startsWith(head, 8, 'm', 'i', 'f', '1'))) {
+            return "image/heic";
+        }
+        return null;
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... signature) {
+        if (data.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((data[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.foodplatform.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores images as plain files, one per id. Handy for local development and single-node
+ * deployments that have a persistent disk but no need to grow the Mongo working set.
+ */
+@Service
+@ConditionalOnProperty(name = "app.images.store", havingValue = "local")
+public class LocalFileSystemImageStore implements ImageStore {
+
+    private final Path root;
+
+    public LocalFileSystemImageStore(@Value("${app.images.local.dir:./data/images}") String dir) throws IOException {
+        this.root = Path.of(dir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public String store(InputStream content, String contentType) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Files.copy(content, resolve(id));
+        return id;
+    }
+
+    @Override
+    public Optional<Resource> load(String id) {
+        Path file = resolve(id);
+        return Files.isRegularFile(file) ? Optional.of(new FileSystemResource(file)) : Optional.empty();
+    }
+
+    @Override
+    public void delete(String id) {
+        try {
+            Files.deleteIfExists(resolve(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path resolve(String id) {
+        Path file = root.resolve(id).normalize();
+        // ids come from request paths, never let them escape the image directory
+        if (!file.getParent().equals(root)) {
+            throw new IllegalArgumentException("Invalid image id: " + id);
+        }
+        return file;
+    }
+}
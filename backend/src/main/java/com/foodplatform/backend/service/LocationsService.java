@@ -1,8 +1,146 @@
 package com.foodplatform.backend.service;
 
 
+import com.foodplatform.backend.model_temp.Coordinates;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.repository.DonorRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 @Service
 public class LocationsService {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationsService.class);
+
+    private final DonorRepository donorRepository;
+    private final MongoTemplate mongoTemplate;
+    private final DonationSpatialIndex spatialIndex;
+
+    public LocationsService(DonorRepository donorRepository,
+                            MongoTemplate mongoTemplate,
+                            @Value("${app.spatial-index.cell-size-deg:0.01}") double cellSizeDeg) {
+        this.donorRepository = donorRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.spatialIndex = new DonationSpatialIndex(cellSizeDeg);
+    }
+
+    /** Adds (or moves) a donation in the in-memory index. Call after every save. */
+    public void index(Donor donor) {
+        if (donor.getId() == null || donor.getLocation() == null || donor.getLocation().getCoordinates() == null) {
+            return;
+        }
+        Coordinates coords = donor.getLocation().getCoordinates();
+        if (coords.getLatitude() == null || coords.getLongitude() == null) {
+            return;
+        }
+        long createdAt = donor.getCreatedAt() != null ? donor.getCreatedAt().getTime() : 0L;
+        // Kept so expired donations stop being offered before DonationArchiver removes them
+        long expiresAt = donor.getDonation() != null && donor.getDonation().getExpiresAt() != null
+                ? donor.getDonation().getExpiresAt().getTime() : Long.MAX_VALUE;
+        spatialIndex.put(donor.getId(), coords.getLatitude(), coords.getLongitude(), createdAt, expiresAt);
+    }
+
+    public void unindex(String donorId) {
+        spatialIndex.remove(donorId);
+    }
+
+    /** The k closest donations from the in-memory index; never touches Mongo. */
+    public List<DonationSpatialIndex.Hit> findNearestInMemory(double latitude, double longitude, int k, double maxRadiusKm) {
+        checkCoordinates(latitude, longitude);
+        return spatialIndex.nearest(latitude, longitude, k, maxRadiusKm);
+    }
+
+    /** Donations within the radius from the in-memory index, nearest first; never touches Mongo. */
+    public List<DonationSpatialIndex.Hit> findWithinRadiusInMemory(double latitude, double longitude, double radiusKm, int limit) {
+        checkCoordinates(latitude, longitude);
+        if (radiusKm <= 0) {
+            throw new IllegalArgumentException("radiusKm must be positive");
+        }
+        return spatialIndex.withinRadius(latitude, longitude, radiusKm, limit);
+    }
+
+    /**
+     * Donations within {@code radiusKm} of the given point, nearest first.
+     * Served by the 2dsphere index on {@code position}.
+     */
+    public List<GeoResult<Donor>> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        checkCoordinates(latitude, longitude);
+        if (radiusKm <= 0) {
+            throw new IllegalArgumentException("radiusKm must be positive");
+        }
+        // Point is (x, y), i.e. (longitude, latitude)
+        return donorRepository.findByPositionNear(
+                new Point(longitude, latitude),
+                new Distance(radiusKm, Metrics.KILOMETERS),
+                PageRequest.of(0, limit)
+        );
+    }
+
+    public static void checkCoordinates(double latitude, double longitude) {
+        // Written so that NaN fails too
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Coordinates out of range");
+        }
+    }
+
+    /**
+     * Loads every donation location into the in-memory index. Donations saved meanwhile are
+     * indexed by the controller as usual; put() is idempotent so overlaps are harmless.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmSpatialIndex() {
+        long start = System.nanoTime();
+        try (Stream<Donor> donors = donorRepository.streamActiveLocations()) {
+            donors.forEach(this::index);
+            log.info("Spatial index warmed with {} donations in {} ms",
+                    spatialIndex.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Could not warm the spatial index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gives donors created before the 2dsphere index (see MongoIndexInitializer) a GeoJSON
+     * position. Runs in the background so a slow or unreachable database doesn't hold up startup.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPositions() {
+        try {
+            // Copy location.coordinates into position server-side, no documents travel to the app
+            AggregationUpdate setPosition = AggregationUpdate.update()
+                    .set("position").toValue(new Document("type", "Point").append("coordinates",
+                            List.of("$location.coordinates.longitude", "$location.coordinates.latitude")));
+            long updated = mongoTemplate.updateMulti(
+                    query(where("position").exists(false)
+                            .and("location.coordinates.latitude").type(1)
+                            .and("location.coordinates.longitude").type(1)),
+                    setPosition, Donor.class).getModifiedCount();
+            if (updated > 0) {
+                log.info("Backfilled position on {} donors", updated);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not backfill donor positions: {}", e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.model_temp.Quantity;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Gives donations from before Donation.amount existed their parsed quantity, in donors and in
+ * donors_archive, so the servings statistics cover them. Runs once at startup in batches of
+ * app.donations.quantity-migration.batch-size. Text that can't be parsed gets amount null, so
+ * every document is looked at once; new donations are saved with an amount, null included (see
+ * Donation.amount), so once the old ones are done a run finds nothing. Running it on several
+ * instances only repeats the same updates.
+ */
+@Service
+public class QuantityMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(QuantityMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    public QuantityMigration(MongoTemplate mongoTemplate,
+                             @Value("${app.donations.quantity-migration.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        for (String collection : List.of(mongoTemplate.getCollectionName(Donor.class), DonationArchiver.ARCHIVE_COLLECTION)) {
+            try {
+                long migrated = 0;
+                int moved;
+                do {
+                    moved = migrateBatch(collection);
+                    migrated += moved;
+                } while (moved == batchSize);
+                if (migrated > 0) {
+                    log.info("Parsed the quantity of {} donations in {}", migrated, collection);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not migrate the quantities in {}: {}", collection, e.getMessage());
+            }
+        }
+    }
+
+    /** Parses the quantity of up to one batch of donations without an amount; returns how many. */
+    int migrateBatch(String collection) {
+        Query pending = query(where("donation").exists(true).and("donation.amount").exists(false)).limit(batchSize);
+        pending.fields().include("donation.quantity");
+        List<Document> batch = mongoTemplate.find(pending, Document.class, collection);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        for (Document donor : batch) {
+            Document donation = donor.get("donation", Document.class);
+            Quantity amount = Quantity.parse(donation != null ? donation.getString("quantity") : null);
+            updates.updateOne(
+                    query(where("_id").is(donor.get("_id")).and("donation.amount").exists(false)),
+                    new Update().set("donation.amount", mongoTemplate.getConverter().convertToMongoType(amount)));
+        }
+        updates.execute();
+        return batch.size();
+    }
+}
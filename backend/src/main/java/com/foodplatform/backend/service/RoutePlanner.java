@@ -0,0 +1,153 @@
+package com.foodplatform.backend.service;
+
+/**
+ * Orders the pickups of one trip: from the volunteer's position through every stop, ending at
+ * the last one. Distances are great-circle, travel time is distance at {@code speedKmh} plus
+ * {@code stopMillis} at every stop, and each stop may have a deadline (its donation expires).
+ *
+ * A route is better when it is less late in total (the sum over stops of how long after the
+ * deadline they are reached) and, as a tie-breaker, shorter. The planner starts from the
+ * nearest-neighbour route and improves it with 2-opt moves (reversing a stretch of it) until
+ * no move helps. With all distances precomputed into one flat matrix, evaluating a move is a
+ * walk over primitive arrays; 50 stops take a few milliseconds.
+ *
+ * Not thread-safe; use one per request.
+ */
+public class RoutePlanner {
+
+    private final double speedKmh;
+    private final long stopMillis;
+
+    public RoutePlanner(double speedKmh, long stopMillis) {
+        if (speedKmh <= 0 || stopMillis < 0) {
+            throw new IllegalArgumentException("speedKmh must be positive and stopMillis not negative");
+        }
+        this.speedKmh = speedKmh;
+        this.stopMillis = stopMillis;
+    }
+
+    /**
+     * @param deadlines epoch millis by which each stop should be reached, Long.MAX_VALUE for none
+     * @return the stop indexes in visiting order
+     */
+    public int[] plan(double startLat, double startLng, double[] lat, double[] lng, long[] deadlines, long departAt) {
+        int n = lat.length;
+        if (n == 0) {
+            return new int[0];
+        }
+
+        // Node 0 is the start, node i + 1 is stop i
+        int nodes = n + 1;
+        double[] distance = new double[nodes * nodes];
+        for (int a = 0; a < nodes; a++) {
+            for (int b = a + 1; b < nodes; b++) {
+                double d = DonationSpatialIndex.haversineKm(
+                        a == 0 ? startLat : lat[a - 1], a == 0 ? startLng : lng[a - 1],
+                        lat[b - 1], lng[b - 1]);
+                distance[a * nodes + b] = d;
+                distance[b * nodes + a] = d;
+            }
+        }
+
+        int[] route = nearestNeighbour(distance, nodes);
+        improve(route, distance, nodes, deadlines, departAt);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = route[i + 1] - 1;
+        }
+        return order;
+    }
+
+    // route[0] is the start; route[1..n] the stops as nodes
+    private static int[] nearestNeighbour(double[] distance, int nodes) {
+        int[] route = new int[nodes];
+        boolean[] visited = new boolean[nodes];
+        visited[0] = true;
+        for (int i = 1; i < nodes; i++) {
+            int from = route[i - 1];
+            int best = -1;
+            for (int candidate = 1; candidate < nodes; candidate++) {
+                if (!visited[candidate] && (best < 0 || distance[from * nodes + candidate] < distance[from * nodes + best])) {
+                    best = candidate;
+                }
+            }
+            route[i] = best;
+            visited[best] = true;
+        }
+        return route;
+    }
+
+    private void improve(int[] route, double[] distance, int nodes, long[] deadlines, long departAt) {
+        int last = nodes - 1;
+        double bestLate = lateness(route, 0, -1, distance, nodes, deadlines, departAt);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 1; i < last; i++) {
+                for (int j = i + 1; j <= last; j++) {
+                    // Reversing route[i..j] replaces the edges a-b and c-d with a-c and b-d
+                    int a = route[i - 1];
+                    int b = route[i];
+                    int c = route[j];
+                    double delta = distance[a * nodes + c] - distance[a * nodes + b];
+                    if (j < last) {
+                        int d = route[j + 1];
+                        delta += distance[b * nodes + d] - distance[c * nodes + d];
+                    }
+                    if (delta > -1e-9 && bestLate == 0) {
+                        continue;   // can't be shorter, and nothing to make up on time
+                    }
+                    double late = lateness(route, i, j, distance, nodes, deadlines, departAt);
+                    if (late < bestLate - 1e-9 || (late <= bestLate && delta < -1e-9)) {
+                        reverse(route, i, j);
+                        bestLate = late;
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    // Total millis past the deadlines, for the route with route[from..to] reversed (to < 0: as is)
+    private double lateness(int[] route, int from, int to, double[] distance, int nodes, long[] deadlines, long departAt) {
+        double late = 0;
+        double now = departAt;
+        int previous = route[0];
+        for (int i = 1; i < route.length; i++) {
+            int node = to >= 0 && i >= from && i <= to ? route[from + to - i] : route[i];
+            now += distance[previous * nodes + node] / speedKmh * 3_600_000;
+            long deadline = deadlines[node - 1];
+            if (now > deadline) {
+                late += now - deadline;
+            }
+            now += stopMillis;
+            previous = node;
+        }
+        return late;
+    }
+
+    private static void reverse(int[] route, int i, int j) {
+        for (; i < j; i++, j--) {
+            int t = route[i];
+            route[i] = route[j];
+            route[j] = t;
+        }
+    }
+
+    /** Arrival time at each stop of {@code order}, in the same order. */
+    public long[] arrivals(double startLat, double startLng, double[] lat, double[] lng, int[] order, long departAt) {
+        long[] arrivals = new long[order.length];
+        double now = departAt;
+        double fromLat = startLat;
+        double fromLng = startLng;
+        for (int i = 0; i < order.length; i++) {
+            now += DonationSpatialIndex.haversineKm(fromLat, fromLng, lat[order[i]], lng[order[i]]) / speedKmh * 3_600_000;
+            arrivals[i] = (long) now;
+            now += stopMillis;
+            fromLat = lat[order[i]];
+            fromLng = lng[order[i]];
+        }
+        return arrivals;
+    }
+}
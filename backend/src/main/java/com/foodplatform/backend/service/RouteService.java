@@ -0,0 +1,124 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.Coordinates;
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Plans the trip of a volunteer who has claimed several donations: in which order to pick them
+ * up, when they'll get to each and whether that is before it expires. See {@link RoutePlanner}.
+ *
+ * Loading the donations ({@link #claimedQuery}) and planning ({@link #plan(double, double, List, long)})
+ * are separate so the reactive controller can load them on the ReactiveMongoTemplate.
+ */
+@Service
+public class RouteService {
+
+    /** One pickup, in visiting order. */
+    public record Stop(String donationId, String donorName, String address, double latitude, double longitude,
+                       double legKm, Date arrivalAt, Date expiresAt, boolean late) {
+    }
+
+    public record Route(List<Stop> stops, double distanceKm, Date departAt, Date finishAt) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final double speedKmh;
+    private final Duration stopTime;
+    private final int maxStops;
+
+    public RouteService(MongoTemplate mongoTemplate,
+                        @Value("${app.routes.speed-kmh:20}") double speedKmh,
+                        @Value("${app.routes.stop-time:5m}") Duration stopTime,
+                        @Value("${app.routes.max-stops:100}") int maxStops) {
+        this.mongoTemplate = mongoTemplate;
+        this.speedKmh = speedKmh;
+        this.stopTime = stopTime;
+        this.maxStops = maxStops;
+    }
+
+    /**
+     * The route through the donations {@code username} has claimed and not yet picked up, or
+     * through those of them in {@code donationIds} when that isn't empty.
+     *
+     * @throws IllegalArgumentException when the start is invalid or there are too many stops
+     */
+    public Route planClaimed(String username, double latitude, double longitude, List<String> donationIds) {
+        LocationsService.checkCoordinates(latitude, longitude);
+        return plan(latitude, longitude, mongoTemplate.find(claimedQuery(username, donationIds), Donor.class), System.currentTimeMillis());
+    }
+
+    public static Query claimedQuery(String username, List<String> donationIds) {
+        Criteria claimed = where("donation.claimedBy").is(username).and("donation.status").is(DonationStatus.CLAIMED.name());
+        if (donationIds != null && !donationIds.isEmpty()) {
+            claimed = claimed.and("_id").in(donationIds);
+        }
+        Query query = query(claimed);
+        query.fields().exclude("donation.foodImage.image");
+        return query;
+    }
+
+    /**
+     * @throws IllegalArgumentException when there are more than app.routes.max-stops donations
+     */
+    public Route plan(double latitude, double longitude, List<Donor> donors, long departAt) {
+        List<Donor> stops = new ArrayList<>();
+        for (Donor donor : donors) {
+            Coordinates coordinates = donor.getLocation() != null ? donor.getLocation().getCoordinates() : null;
+            if (coordinates != null && coordinates.getLatitude() != null && coordinates.getLongitude() != null) {
+                stops.add(donor);
+            }
+        }
+        if (stops.size() > maxStops) {
+            throw new IllegalArgumentException("A route can have at most " + maxStops + " stops");
+        }
+
+        int n = stops.size();
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        long[] deadlines = new long[n];
+        for (int i = 0; i < n; i++) {
+            Coordinates coordinates = stops.get(i).getLocation().getCoordinates();
+            lat[i] = coordinates.getLatitude();
+            lng[i] = coordinates.getLongitude();
+            Date expiresAt = stops.get(i).getDonation() != null ? stops.get(i).getDonation().getExpiresAt() : null;
+            deadlines[i] = expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE;
+        }
+
+        RoutePlanner planner = new RoutePlanner(speedKmh, stopTime.toMillis());
+        int[] order = planner.plan(latitude, longitude, lat, lng, deadlines, departAt);
+        long[] arrivals = planner.arrivals(latitude, longitude, lat, lng, order, departAt);
+
+        List<Stop> route = new ArrayList<>(n);
+        double total = 0;
+        double fromLat = latitude;
+        double fromLng = longitude;
+        for (int i = 0; i < n; i++) {
+            int s = order[i];
+            Donor donor = stops.get(s);
+            double legKm = DonationSpatialIndex.haversineKm(fromLat, fromLng, lat[s], lng[s]);
+            total += legKm;
+            route.add(new Stop(donor.getId(), donor.getDonorName(), donor.getLocation().getAddress(), lat[s], lng[s],
+                    legKm, new Date(arrivals[i]),
+                    deadlines[s] == Long.MAX_VALUE ? null : new Date(deadlines[s]),
+                    arrivals[i] > deadlines[s]));
+            fromLat = lat[s];
+            fromLng = lng[s];
+        }
+        long finishAt = n == 0 ? departAt : arrivals[n - 1] + stopTime.toMillis();
+        return new Route(route, total, new Date(departAt), new Date(finishAt));
+    }
+}
@@ -0,0 +1,63 @@
+package com.foodplatform.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The volunteers and NGOs that are online for dispatch, with the location they last reported.
+ * Apps report every minute or so while the user is available; someone who hasn't reported for
+ * app.dispatch.presence-ttl counts as offline. Kept in memory, so it is per instance, like the
+ * local source of the {@link DonationFeed}.
+ */
+@Component
+public class VolunteerPresence {
+
+    /** A volunteer's last report; capacity is how many pickups they can take at once. */
+    public record Presence(String username, double latitude, double longitude, int capacity, long reportedAt) {
+    }
+
+    private final Map<String, Presence> online = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int defaultCapacity;
+    private final int maxCapacity;
+
+    public VolunteerPresence(@Value("${app.dispatch.presence-ttl:2m}") Duration ttl,
+                             @Value("${app.dispatch.capacity.default:3}") int defaultCapacity,
+                             @Value("${app.dispatch.capacity.max:20}") int maxCapacity) {
+        this.ttlMillis = ttl.toMillis();
+        this.defaultCapacity = defaultCapacity;
+        this.maxCapacity = maxCapacity;
+    }
+
+    /**
+     * @param capacity null for the default
+     * @throws IllegalArgumentException when the coordinates or the capacity are out of range
+     */
+    public Presence report(String username, double latitude, double longitude, Integer capacity) {
+        LocationsService.checkCoordinates(latitude, longitude);
+        int pickups = capacity == null ? defaultCapacity : capacity;
+        if (pickups < 1 || pickups > maxCapacity) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + maxCapacity);
+        }
+        Presence presence = new Presence(username, latitude, longitude, pickups, System.currentTimeMillis());
+        online.put(username, presence);
+        return presence;
+    }
+
+    public void leave(String username) {
+        online.remove(username);
+    }
+
+    /** Everyone who reported within the TTL; drops the others. */
+    public List<Presence> online() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        online.values().removeIf(presence -> presence.reportedAt() < cutoff);
+        return new ArrayList<>(online.values());
+    }
+}
@@ -0,0 +1,40 @@
+package com.foodplatform.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveProfileTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private WebTestClient client;
+
+	@Test
+	void runsOnWebFlux() {
+		assertThat(context).isInstanceOf(ReactiveWebApplicationContext.class);
+		client.get().uri("/ping").exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("pong");
+	}
+
+	@Test
+	void donorsNeedAToken() {
+		client.get().uri("/api/donors").exchange().expectStatus().isUnauthorized();
+		client.get().uri("/api/donors").header("Authorization", "Bearer not-a-jwt").exchange()
+				.expectStatus().isUnauthorized();
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.foodplatform.backend.benchmark;
+
+import com.foodplatform.backend.service.DispatchMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One dispatch round: matching the open donations of a city against the volunteers online,
+ * with the settings from application.properties. The target is 10k donations x 5k volunteers
+ * in well under a second on one core (the benchmark runs single-threaded).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchMatcherBenchmark {
+
+    @Param({"1000", "10000"})
+    int donations;
+
+    @Param({"500", "5000"})
+    int volunteers;
+
+    // A city about Pune's size
+    @Param({"30"})
+    double spreadKm;
+
+    private SyntheticDispatchData data;
+    private DispatchMatcher matcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = SyntheticDispatchData.generate(11, donations, volunteers, 18.52, 73.85, spreadKm);
+        matcher = new DispatchMatcher(10, 8, 0.02);
+    }
+
+    @Benchmark
+    public int[] greedyRound() {
+        return matcher.match(data.donationLat(), data.donationLng(),
+                data.volunteerLat(), data.volunteerLng(), data.capacity());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(DispatchMatcherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
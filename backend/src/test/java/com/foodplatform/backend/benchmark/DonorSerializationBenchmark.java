@@ -0,0 +1,124 @@
+package com.foodplatform.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodplatform.backend.dto.DonorJson;
+import com.foodplatform.backend.model_temp.Coordinates;
+import com.foodplatform.backend.model_temp.Donation;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.model_temp.FoodImage;
+import com.foodplatform.backend.model_temp.Locations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writing a donor list as JSON. {@code legacyMaps} is the old toResponseMap() path (four
+ * HashMaps per donor, then Jackson over the list); {@code streaming} is what GET /api/donors
+ * does now. Run with {@code -prof gc} to compare gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DonorSerializationBenchmark {
+
+    private static final DateTimeFormatter ISO_FMT =
+            DateTimeFormatter.ISO_INSTANT.withZone(ZoneOffset.UTC);
+
+    @Param({"1000", "10000"})
+    public int donors;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<Donor> list;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = new ArrayList<>(donors);
+        for (int i = 0; i < donors; i++) {
+            FoodImage image = new FoodImage("img" + i, "image/jpeg", 48_000);
+            Donation donation = new Donation("20 people", "Veg", "5 kg", image);
+            Locations location = new Locations("Street " + i + ", Pune",
+                    new Coordinates(18.5 + i * 1e-5, 73.8 + i * 1e-5));
+            list.add(new Donor("id" + i, "Donor " + i, "98765" + i, "Restaurant",
+                    donation, location, new Date()));
+        }
+    }
+
+    @Benchmark
+    public void legacyMaps() throws Exception {
+        List<Map<String, Object>> processed = new ArrayList<>(list.size());
+        for (Donor donor : list) {
+            processed.add(legacyMap(donor));
+        }
+        mapper.writeValue(OutputStream.nullOutputStream(), processed);
+    }
+
+    @Benchmark
+    public void streaming() throws Exception {
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            gen.writeStartArray();
+            for (Donor donor : list) {
+                DonorJson.writeDonor(donor, gen);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private static Map<String, Object> legacyMap(Donor donor) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("_id", donor.getId());
+        map.put("donorName", donor.getDonorName());
+        map.put("contactNumber", donor.getContactNumber());
+        map.put("donorType", donor.getDonorType());
+
+        Map<String, Object> donationMap = new HashMap<>();
+        Donation donation = donor.getDonation();
+        donationMap.put("foodFor", donation.getFoodFor());
+        donationMap.put("foodType", donation.getFoodType());
+        donationMap.put("quantity", donation.getQuantity());
+        FoodImage image = donation.getFoodImage();
+        Map<String, Object> imageMap = new HashMap<>();
+        imageMap.put("url", "/api/donations/" + donor.getId() + "/image");
+        imageMap.put("contentType", image.getContentType());
+        imageMap.put("size", image.getSize());
+        donationMap.put("foodImage", imageMap);
+        map.put("donation", donationMap);
+
+        Map<String, Object> locationMap = new HashMap<>();
+        locationMap.put("address", donor.getLocation().getAddress());
+        locationMap.put("coordinates", donor.getLocation().getCoordinates());
+        map.put("location", locationMap);
+
+        map.put("createdAt", ISO_FMT.format(donor.getCreatedAt().toInstant()));
+        return map;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(DonorSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,112 @@
+package com.foodplatform.backend.benchmark;
+
+import com.foodplatform.backend.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens/sec validated by the JWT filter path.
+ *
+ * {@code legacy} reproduces the previous JwtUtil: isTokenValid() parsed the token three times,
+ * each time building a new parser and key. {@code singleParse} is the current JwtUtil with the
+ * verified-token cache off, {@code cached} with it on (the steady state for a returning client).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET_KEY = "mySuperSecretKeyThatIsVeryLongAndSecure123456";
+    private static final int TOKENS = 1024;
+
+    private JwtUtil singleParse;
+    private JwtUtil cached;
+    private String[] tokens;
+    private UserDetails[] users;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        singleParse = new JwtUtil(false, 0, new SimpleMeterRegistry());
+        cached = new JwtUtil(true, 10_000, new SimpleMeterRegistry());
+        tokens = new String[TOKENS];
+        users = new UserDetails[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            users[i] = new User("user" + i, "", List.of(new SimpleGrantedAuthority("ROLE_NGO")));
+            tokens[i] = singleParse.generateToken(users[i]);
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (TOKENS - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        int i = next();
+        String token = tokens[i];
+        String username = legacyClaims(token).getSubject();
+        return username.equals(users[i].getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date())
+                && legacyClaims(token).getSubject() != null;
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        int i = next();
+        return singleParse.isTokenValid(tokens[i], users[i]);
+    }
+
+    @Benchmark
+    public boolean cached() {
+        int i = next();
+        return cached.isTokenValid(tokens[i], users[i]);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(legacyKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static Key legacyKey() {
+        Decoders.BASE64.decode(SECRET_KEY);
+        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,212 @@
+package com.foodplatform.backend.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Closed-loop load test against a running backend: N concurrent clients send requests back to
+ * back for a fixed time, then throughput and latency percentiles are printed. Run it once with
+ * VIRTUAL_THREADS=false and once with the default to compare the two threading modes.
+ *
+ * <pre>
+ * java -cp target/test-classes com.foodplatform.backend.benchmark.LoadTest
+ * </pre>
+ *
+ * System properties (all optional):
+ * load.url (http://localhost:8080), load.concurrency (200), load.duration (30s),
+ * load.target (donors, donations, mixed or login; default mixed), load.token (a JWT; without one a
+ * throwaway NGO user is registered). The donors target reads /api/donors/page, since GET
+ * /api/donors returns the whole collection. The login target has every fifth client log in
+ * again and again while the others read donors, and reports the two separately; with
+ * load.token it also needs load.username and load.password of that user.
+ */
+public class LoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String BOUNDARY = "----loadtest" + UUID.randomUUID();
+
+    // What one client did: the kind of requests it sent, and their latencies in nanoseconds
+    private record ClientResult(String kind, long[] latencies, long ok, long failed) {
+    }
+
+    private final String baseUrl;
+    private final String token;
+    private final String loginJson;
+    private final HttpClient client;
+
+    private LoadTest(String baseUrl, String token, String loginJson, HttpClient client) {
+        this.baseUrl = baseUrl;
+        this.token = token;
+        this.loginJson = loginJson;
+        this.client = client;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.url", "http://localhost:8080");
+        int concurrency = Integer.getInteger("load.concurrency", 200);
+        Duration duration = Duration.parse("PT" + System.getProperty("load.duration", "30s"));
+        String target = System.getProperty("load.target", "mixed");
+
+        // The clients themselves run on virtual threads so the harness is never the bottleneck
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder()
+                .executor(clients)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        String username = System.getProperty("load.username", "loadtest-" + UUID.randomUUID());
+        String password = System.getProperty("load.password", "loadtest-password");
+        String token = System.getProperty("load.token");
+        if (token == null) {
+            token = registerUser(http, baseUrl, username, password);
+        }
+        String loginJson = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+        LoadTest test = new LoadTest(baseUrl, token, loginJson, http);
+
+        System.out.printf("%s: %d clients for %ds against %s%n",
+                target, concurrency, duration.toSeconds(), baseUrl);
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<ClientResult>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            int clientNo = i;
+            futures.add(clients.submit(() -> test.run(target, clientNo, deadline)));
+        }
+        List<ClientResult> perClient = new ArrayList<>();
+        for (Future<ClientResult> future : futures) {
+            perClient.add(future.get());
+        }
+        clients.shutdown();
+
+        Map<String, List<ClientResult>> byKind = perClient.stream()
+                .collect(Collectors.groupingBy(ClientResult::kind));
+        double seconds = duration.toMillis() / 1000.0;
+        for (Map.Entry<String, List<ClientResult>> kind : byKind.entrySet()) {
+            report(kind.getKey(), kind.getValue(), seconds);
+        }
+    }
+
+    private static void report(String kind, List<ClientResult> results, double seconds) {
+        long ok = results.stream().mapToLong(ClientResult::ok).sum();
+        long failed = results.stream().mapToLong(ClientResult::failed).sum();
+        long[] latencies = results.stream().map(ClientResult::latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%s: %d ok, %d failed, %.1f req/s%n", kind, ok, failed, ok / seconds);
+        if (latencies.length > 0) {
+            System.out.printf("%s latency ms: p50 %.1f  p95 %.1f  p99 %.1f  max %.1f%n", kind,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95),
+                    percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    // One client: send requests until the deadline, recording each latency in nanoseconds
+    private ClientResult run(String target, int clientNo, long deadline) {
+        boolean login = target.equals("login") && clientNo % 5 == 0;
+        long[] latencies = new long[1024];
+        int count = 0;
+        long ok = 0;
+        long failed = 0;
+        for (int n = 0; System.nanoTime() < deadline; n++) {
+            boolean donation = switch (target) {
+                case "donations" -> true;
+                case "donors", "login" -> false;
+                default -> (clientNo + n) % 5 == 0; // one write per four reads
+            };
+            HttpRequest request = login ? loginRequest() : donation ? donationRequest(clientNo, n) : donorsRequest();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() < 400) {
+                    ok++;
+                } else {
+                    failed++;
+                }
+            } catch (Exception e) {
+                failed++;
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return new ClientResult(login ? "login" : "requests", Arrays.copyOf(latencies, count), ok, failed);
+    }
+
+    private HttpRequest loginRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(loginJson))
+                .build();
+    }
+
+    private HttpRequest donorsRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/donors/page?size=50"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest donationRequest(int clientNo, int n) {
+        StringBuilder body = new StringBuilder();
+        field(body, "donorName", "Load test " + clientNo);
+        field(body, "contactNumber", "9000000000");
+        field(body, "donorType", "Restaurant");
+        field(body, "foodFor", "humans");
+        field(body, "foodType", "Veg");
+        field(body, "quantity", "5 kg");
+        field(body, "address", "Load test street " + n);
+        field(body, "latitude", Double.toString(18.45 + (clientNo % 100) * 0.002));
+        field(body, "longitude", Double.toString(73.80 + (n % 100) * 0.002));
+        body.append("--").append(BOUNDARY).append("--\r\n");
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/donations"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static void field(StringBuilder body, String name, String value) {
+        body.append("--").append(BOUNDARY).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(name).append("\"\r\n\r\n")
+                .append(value).append("\r\n");
+    }
+
+    private static String registerUser(HttpClient http, String baseUrl, String username, String password) throws Exception {
+        String json = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\","
+                + "\"password\":\"" + password + "\",\"roles\":[\"NGO\"]}";
+        HttpResponse<String> response = http.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() >= 400 || !matcher.find()) {
+            throw new IllegalStateException("Could not register a load-test user: "
+                    + response.statusCode() + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)));
+        return sorted[index] / 1e6;
+    }
+}
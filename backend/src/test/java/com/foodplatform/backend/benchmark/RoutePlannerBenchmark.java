@@ -0,0 +1,71 @@
+package com.foodplatform.backend.benchmark;
+
+import com.foodplatform.backend.service.RoutePlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning one pickup trip, with and without expiry deadlines that the shortest route would
+ * miss. The target is tens of milliseconds for 50 stops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutePlannerBenchmark {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Param({"10", "50", "100"})
+    int stops;
+
+    @Param({"false", "true"})
+    boolean deadlines;
+
+    private double[] lat;
+    private double[] lng;
+    private long[] expiresAt;
+    private RoutePlanner planner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(5);
+        SyntheticDispatchData city = SyntheticDispatchData.generate(5, stops, 0, 18.52, 73.85, 15);
+        lat = city.donationLat();
+        lng = city.donationLng();
+        expiresAt = new long[stops];
+        for (int i = 0; i < stops; i++) {
+            // Between half an hour and four hours from now
+            expiresAt[i] = deadlines ? NOW + 1_800_000 + random.nextLong(12_600_000) : Long.MAX_VALUE;
+        }
+        planner = new RoutePlanner(20, 5 * 60_000);
+    }
+
+    @Benchmark
+    public int[] plan() {
+        return planner.plan(18.52, 73.85, lat, lng, expiresAt, NOW);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RoutePlannerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
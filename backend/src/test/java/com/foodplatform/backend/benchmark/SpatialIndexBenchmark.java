@@ -0,0 +1,161 @@
+package com.foodplatform.backend.benchmark;
+
+import com.foodplatform.backend.service.DonationSpatialIndex;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.geojson.Point;
+import com.mongodb.client.model.geojson.Position;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory grid index vs. Mongo {@code $near} for the "what's near me" dispatch query.
+ *
+ * The Mongo benchmarks only run when {@code -Dbench.mongo.uri=mongodb://...} is given; they
+ * seed a scratch {@code bench_donors} collection with the same points as the in-memory index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpatialIndexBenchmark {
+
+    private static final double LAT = 18.52;
+    private static final double LNG = 73.85;
+    private static final int QUERIES = 1024;
+
+    @Param({"100000", "1000000"})
+    int donations;
+
+    @Param({"2.0"})
+    double radiusKm;
+
+    private DonationSpatialIndex index;
+    private double[] queryLat;
+    private double[] queryLng;
+    private int cursor;
+
+    private MongoClient mongoClient;
+    private MongoCollection<Document> collection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        index = new DonationSpatialIndex(0.01);
+        double[] lats = new double[donations];
+        double[] lngs = new double[donations];
+        for (int i = 0; i < donations; i++) {
+            lats[i] = LAT + (random.nextDouble() - 0.5);
+            lngs[i] = LNG + (random.nextDouble() - 0.5);
+            index.put(Integer.toString(i), lats[i], lngs[i], i);
+        }
+        queryLat = new double[QUERIES];
+        queryLng = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryLat[i] = LAT + (random.nextDouble() - 0.5) * 0.8;
+            queryLng[i] = LNG + (random.nextDouble() - 0.5) * 0.8;
+        }
+
+        String uri = System.getProperty("bench.mongo.uri");
+        if (uri != null && !uri.isBlank()) {
+            mongoClient = MongoClients.create(uri);
+            collection = mongoClient.getDatabase("resq_bench").getCollection("bench_donors");
+            collection.drop();
+            List<Document> batch = new ArrayList<>(10_000);
+            for (int i = 0; i < donations; i++) {
+                batch.add(new Document("_id", i)
+                        .append("position", new Document("type", "Point").append("coordinates", List.of(lngs[i], lats[i])))
+                        .append("createdAt", i));
+                if (batch.size() == 10_000) {
+                    collection.insertMany(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                collection.insertMany(batch);
+            }
+            collection.createIndex(Indexes.geo2dsphere("position"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (mongoClient != null) {
+            collection.drop();
+            mongoClient.close();
+        }
+    }
+
+    private int nextQuery() {
+        cursor = (cursor + 1) & (QUERIES - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public void inMemoryNearest10(Blackhole bh) {
+        int q = nextQuery();
+        bh.consume(index.nearest(queryLat[q], queryLng[q], 10, 50.0));
+    }
+
+    @Benchmark
+    public void inMemoryRadius(Blackhole bh) {
+        int q = nextQuery();
+        bh.consume(index.withinRadius(queryLat[q], queryLng[q], radiusKm, 100));
+    }
+
+    @Benchmark
+    public void mongoNear10(Blackhole bh) {
+        if (collection == null) {
+            return;
+        }
+        int q = nextQuery();
+        Point point = new Point(new Position(queryLng[q], queryLat[q]));
+        collection.find(Filters.nearSphere("position", point, 50_000.0, null))
+                .limit(10)
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void mongoRadius(Blackhole bh) {
+        if (collection == null) {
+            return;
+        }
+        int q = nextQuery();
+        Point point = new Point(new Position(queryLng[q], queryLat[q]));
+        collection.find(Filters.nearSphere("position", point, radiusKm * 1000, null))
+                .limit(100)
+                .forEach(bh::consume);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SpatialIndexBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-Dbench.mongo.uri=" + System.getProperty("bench.mongo.uri", ""))
+                .build()).run();
+    }
+}
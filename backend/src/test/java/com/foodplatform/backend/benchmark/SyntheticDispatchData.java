@@ -0,0 +1,57 @@
+package com.foodplatform.backend.benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ * Made-up dispatch rounds for benchmarks: donations and volunteers scattered over a city, the
+ * donations bunched around a few hot spots (markets, wedding halls) and the volunteers spread
+ * more evenly, each able to take 1 to 5 pickups.
+ */
+public record SyntheticDispatchData(double[] donationLat, double[] donationLng,
+                                    double[] volunteerLat, double[] volunteerLng, int[] capacity) {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    public static SyntheticDispatchData generate(long seed, int donations, int volunteers,
+                                                 double centreLat, double centreLng, double spreadKm) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double spread = spreadKm / KM_PER_DEGREE;
+        double lngScale = 1 / Math.cos(Math.toRadians(centreLat));
+
+        int hotSpots = 20;
+        double[] hotLat = new double[hotSpots];
+        double[] hotLng = new double[hotSpots];
+        for (int h = 0; h < hotSpots; h++) {
+            hotLat[h] = centreLat + (random.nextDouble() - 0.5) * spread;
+            hotLng[h] = centreLng + (random.nextDouble() - 0.5) * spread * lngScale;
+        }
+
+        double[] donationLat = new double[donations];
+        double[] donationLng = new double[donations];
+        for (int d = 0; d < donations; d++) {
+            if (random.nextInt(3) == 0) {
+                donationLat[d] = centreLat + (random.nextDouble() - 0.5) * spread;
+                donationLng[d] = centreLng + (random.nextDouble() - 0.5) * spread * lngScale;
+            } else {
+                int h = random.nextInt(hotSpots);
+                donationLat[d] = hotLat[h] + gaussian(random) * spread / 40;
+                donationLng[d] = hotLng[h] + gaussian(random) * spread / 40 * lngScale;
+            }
+        }
+
+        double[] volunteerLat = new double[volunteers];
+        double[] volunteerLng = new double[volunteers];
+        int[] capacity = new int[volunteers];
+        for (int v = 0; v < volunteers; v++) {
+            volunteerLat[v] = centreLat + (random.nextDouble() - 0.5) * spread;
+            volunteerLng[v] = centreLng + (random.nextDouble() - 0.5) * spread * lngScale;
+            capacity[v] = 1 + random.nextInt(5);
+        }
+        return new SyntheticDispatchData(donationLat, donationLng, volunteerLat, volunteerLng, capacity);
+    }
+
+    // Box-Muller; SplittableRandom has no nextGaussian
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
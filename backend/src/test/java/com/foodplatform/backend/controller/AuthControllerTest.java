@@ -0,0 +1,42 @@
+package com.foodplatform.backend.controller;
+
+import com.foodplatform.backend.dto.LoginRequest;
+import com.foodplatform.backend.security.PasswordHashingBusyException;
+import com.foodplatform.backend.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// A real server: an error forwarded to /error goes through the security chain again
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthControllerTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @Test
+    void aSaturatedHashingPoolAnswers503NotForbidden() {
+        when(authService.login(any(LoginRequest.class))).thenThrow(new PasswordHashingBusyException());
+
+        ResponseEntity<Map> response = rest.postForEntity("/auth/login",
+                Map.of("username", "someone", "password", "secret"), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody()).containsKey("error");
+    }
+}
@@ -0,0 +1,96 @@
+package com.foodplatform.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.service.DonationExpiryPolicy;
+import com.foodplatform.backend.service.DonationFeed;
+import com.foodplatform.backend.service.LocationsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DonationBulkImporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final LocationsService locationsService = mock(LocationsService.class);
+
+    private final DonationBulkImporter importer = new DonationBulkImporter(
+            objectMapper, mongoTemplate, locationsService, mock(DonationFeed.class), new DonationExpiryPolicy(
+                    Duration.ofHours(8), Duration.ofHours(6), Duration.ofHours(12), Duration.ofHours(8), Duration.ofDays(7)),
+            2, 100);
+
+    private static final String VALID = "{\"donorName\":\"Cafe\",\"contactNumber\":\"123\",\"donorType\":\"restaurant\","
+            + "\"foodFor\":\"humans\",\"address\":\"Main St\",\"latitude\":18.5,\"longitude\":73.8}";
+
+    @Test
+    void importsNdjsonInBatchesAndReportsEachRecord() throws Exception {
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenReturn(bulk);
+
+        String body = VALID + "\n{\"donorName\":\"No address\"}\n" + VALID + "\n"
+                + VALID.replace("18.5", "\"north\"") + "\n" + VALID.replace("}", ",\"expiresAt\":\"2000-01-01T00:00:00Z\"}") + "\n";
+        JsonNode result = run(body);
+
+        assertThat(result.get("inserted").asInt()).isEqualTo(2);
+        assertThat(result.get("failed").asInt()).isEqualTo(3);
+        JsonNode results = result.get("results");
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0).has("id")).isTrue();
+        assertThat(results.get(1).get("error").asText()).isEqualTo("contactNumber is required");
+        assertThat(results.get(3).get("error").asText()).contains("numbers");
+        assertThat(results.get(4).get("error").asText()).startsWith("expiresAt must be in the future");
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get("index").asInt()).isEqualTo(i);
+        }
+        // Batches of two records: [0,1] [2,3]; [4] has nothing to insert
+        verify(mongoTemplate, times(2)).bulkOps(BulkOperations.BulkMode.UNORDERED, Donor.class);
+        verify(locationsService, times(2)).index(any(Donor.class));
+    }
+
+    @Test
+    void acceptsAJsonArrayAndStopsAtMalformedInput() throws Exception {
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenReturn(bulk);
+
+        JsonNode result = run("[" + VALID + ", {\"donorName\": ]");
+
+        assertThat(result.get("inserted").asInt()).isEqualTo(1);
+        JsonNode results = result.get("results");
+        assertThat(results.get(0).has("id")).isTrue();
+        assertThat(results.get(1).get("error").asText()).startsWith("Malformed JSON");
+    }
+
+    @Test
+    void rejectsCoordinatesOutOfRange() throws Exception {
+        String body = VALID.replace("18.5", "91") + "\n" + VALID.replace("18.5", "\"NaN\"") + "\n"
+                + VALID.replace("73.8", "\"Infinity\"") + "\n";
+        JsonNode result = run(body);
+
+        assertThat(result.get("inserted").asInt()).isEqualTo(0);
+        for (JsonNode record : result.get("results")) {
+            assertThat(record.get("error").asText()).isEqualTo("Coordinates out of range");
+        }
+    }
+
+    private JsonNode run(String body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importer.importDonations(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+}
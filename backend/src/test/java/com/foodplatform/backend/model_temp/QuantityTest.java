@@ -0,0 +1,69 @@
+package com.foodplatform.backend.model_temp;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuantityTest {
+
+    @Test
+    void parsesWhatDonorsType() {
+        assertThat(Quantity.parse("20 plates")).satisfies(q -> {
+            assertThat(q.getUnit()).isEqualTo(QuantityUnit.SERVINGS);
+            assertThat(q.getServings()).isEqualTo(20);
+        });
+        assertThat(Quantity.parse("2.5 Kg rice")).satisfies(q -> {
+            assertThat(q.getAmount()).isEqualTo(2.5);
+            assertThat(q.getUnit()).isEqualTo(QuantityUnit.KG);
+            assertThat(q.getServings()).isEqualTo(10);
+        });
+        assertThat(Quantity.parse("10-15 people").getServings()).isEqualTo(10);
+        assertThat(Quantity.parse("500g").getUnit()).isEqualTo(QuantityUnit.GRAMS);
+    }
+
+    @Test
+    void parsesTheDonationFormChoices() {
+        assertThat(Quantity.parse(">25").getServings()).isEqualTo(25);
+        assertThat(Quantity.parse("50+").getServings()).isEqualTo(50);
+    }
+
+    @Test
+    void readsACommaBeforeThreeDigitsAsAThousandsSeparator() {
+        assertThat(Quantity.parse("1,000 plates").getServings()).isEqualTo(1000);
+        assertThat(Quantity.parse("1,200-1,500 people").getServings()).isEqualTo(1200);
+        assertThat(Quantity.parse("2,5 kg").getAmount()).isEqualTo(2.5);
+    }
+
+    @Test
+    void rejectsImplausiblyLargeAmounts() {
+        assertThat(Quantity.parse("100000 plates").getServings()).isEqualTo(100_000);
+        assertThat(Quantity.parse("100001 plates")).isNull();
+        assertThat(Quantity.parse("99999999999 kg")).isNull();
+    }
+
+    @Test
+    void leavesTextWithoutAnAmountUnparsed() {
+        assertThat(Quantity.parse("Not specified")).isNull();
+        assertThat(Quantity.parse("Not applicable")).isNull();
+        assertThat(Quantity.parse("3 buckets")).isNull();
+        assertThat(Quantity.parse(null)).isNull();
+    }
+
+    @Test
+    void anUnparsedAmountIsStoredAsNullNotLeftOut() {
+        Donation donation = new Donation();
+        donation.setQuantity("Not applicable");
+        donation.setAmount(Quantity.parse("Not applicable"));
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        Document stored = new Document();
+
+        converter.write(donation, stored);
+
+        // A missing amount is what QuantityMigration looks for
+        assertThat(stored).containsEntry("amount", null);
+    }
+}
@@ -0,0 +1,216 @@
+package com.foodplatform.backend.repository;
+
+import com.foodplatform.backend.config.MongoIndexInitializer;
+import com.foodplatform.backend.dto.DonorSearch;
+import com.foodplatform.backend.dto.DonorSearchResponse;
+import com.foodplatform.backend.model_temp.Coordinates;
+import com.foodplatform.backend.model_temp.Donation;
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import com.foodplatform.backend.model_temp.Locations;
+import com.foodplatform.backend.service.DonorSearchService;
+import com.foodplatform.backend.service.ImageProcessingService;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the DonorRepository queries against a real MongoDB with the declared indexes, captures
+ * the commands they send and checks that none of them is answered by a collection scan.
+ * Needs a database, so it only runs with EXPLAIN_MONGODB_URI set, e.g.
+ * EXPLAIN_MONGODB_URI=mongodb://localhost:27017 mvn test -Dtest=DonorQueryPlanTest
+ */
+@EnabledIfEnvironmentVariable(named = "EXPLAIN_MONGODB_URI", matches = ".+")
+class DonorQueryPlanTest {
+
+    private static final Pageable NEWEST_FIRST = PageRequest.of(0, 20,
+            Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")));
+
+    // Fields the driver adds to a command that explain doesn't accept
+    private static final Set<String> SESSION_FIELDS = Set.of("$db", "lsid", "$clusterTime", "$readPreference", "txnNumber");
+
+    private static final List<Document> commands = new CopyOnWriteArrayList<>();
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static DonorRepository donorRepository;
+
+    @BeforeAll
+    static void setUp() {
+        CommandListener capture = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if (event.getCommandName().equals("find") || event.getCommandName().equals("aggregate")) {
+                    commands.add(Document.parse(event.getCommand().toJson()));
+                }
+            }
+        };
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(System.getenv("EXPLAIN_MONGODB_URI")))
+                .addCommandListener(capture)
+                .build());
+        mongoTemplate = new MongoTemplate(client, "query_plan_test");
+        mongoTemplate.dropCollection(Donor.class);
+        new MongoIndexInitializer(mongoTemplate).ensureIndexes(Donor.class);
+        donorRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(DonorRepository.class);
+
+        long now = System.currentTimeMillis();
+        List<Donor> donors = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            donors.add(donor(i, new Date(now - i * 60_000L), new Date(now + (i % 3 == 0 ? -1 : 1) * 3_600_000L)));
+        }
+        mongoTemplate.insertAll(donors);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (mongoTemplate != null) {
+            mongoTemplate.getDb().drop();
+            client.close();
+        }
+    }
+
+    @BeforeEach
+    void clearCommands() {
+        commands.clear();
+    }
+
+    @Test
+    void firstPageUsesAnIndex() {
+        donorRepository.findFirstPage(NEWEST_FIRST);
+        assertNoCollectionScan();
+    }
+
+    @Test
+    void nextPageUsesAnIndex() {
+        donorRepository.findPageAfter(new Date(), new ObjectId(), NEWEST_FIRST);
+        assertNoCollectionScan();
+    }
+
+    @Test
+    void nearbyUsesAnIndex() {
+        donorRepository.findByPositionNear(new Point(73.85, 18.52), new Distance(5, Metrics.KILOMETERS), PageRequest.of(0, 20));
+        assertNoCollectionScan();
+    }
+
+    @Test
+    void activeStreamsUseAnIndex() {
+        try (Stream<Donor> donors = donorRepository.streamAllActive()) {
+            donors.count();
+        }
+        try (Stream<Donor> locations = donorRepository.streamActiveLocations()) {
+            locations.count();
+        }
+        assertNoCollectionScan();
+    }
+
+    @Test
+    void searchUsesAnIndex() {
+        DonorSearchService search = new DonorSearchService(mongoTemplate);
+
+        DonorSearchResponse newest = search.search(DonorSearch.fromParams(
+                Map.of("foodFor", "humans", "createdWithin", "10h"), 20, 200, 50));
+        assertThat(newest.total()).isPositive();
+        assertThat(newest.items()).hasSize(20);
+
+        DonorSearchResponse nearby = search.search(DonorSearch.fromParams(
+                Map.of("donorType", "restaurant", "lat", "18.52", "lng", "73.85", "radiusKm", "3"), 20, 200, 50));
+        assertThat(nearby.items()).isNotEmpty();
+        assertNoCollectionScan();
+    }
+
+    @Test
+    void pendingImagesUseAnIndex() {
+        mongoTemplate.find(ImageProcessingService.pendingImages(20), Donor.class);
+        assertNoCollectionScan();
+    }
+
+    private static void assertNoCollectionScan() {
+        assertThat(commands).as("captured repository commands").isNotEmpty();
+        for (Document command : commands) {
+            Document explainable = new Document(command);
+            explainable.keySet().removeAll(SESSION_FIELDS);
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new Document("explain", explainable).append("verbosity", "queryPlanner"));
+
+            List<Document> plans = new ArrayList<>();
+            collectWinningPlans(explain, plans);
+            assertThat(plans).as("winning plans of %s", command.toJson()).isNotEmpty();
+            for (Document plan : plans) {
+                assertThat(plan.toJson()).as("plan of %s", command.toJson()).doesNotContain("\"COLLSCAN\"");
+            }
+        }
+    }
+
+    // Aggregations nest the plan inside their stages, so look for it everywhere
+    private static void collectWinningPlans(Object node, List<Document> plans) {
+        if (node instanceof Document document) {
+            for (String key : document.keySet()) {
+                if (key.equals("winningPlan")) {
+                    plans.add(document.get(key, Document.class));
+                } else if (!key.equals("rejectedPlans")) {
+                    collectWinningPlans(document.get(key), plans);
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object item : list) {
+                collectWinningPlans(item, plans);
+            }
+        }
+    }
+
+    private static Donor donor(int i, Date createdAt, Date expiresAt) {
+        double lat = 18.4 + (i % 50) * 0.005;
+        double lng = 73.8 + (i / 50) * 0.005;
+
+        Coordinates coordinates = new Coordinates();
+        coordinates.setLatitude(lat);
+        coordinates.setLongitude(lng);
+        Locations location = new Locations();
+        location.setAddress("Street " + i);
+        location.setCoordinates(coordinates);
+
+        Donation donation = new Donation();
+        donation.setFoodFor(i % 2 == 0 ? "humans" : "animals");
+        donation.setStatus(DonationStatus.AVAILABLE);
+        donation.setExpiresAt(expiresAt);
+
+        Donor donor = new Donor();
+        donor.setDonorName("Donor " + i);
+        donor.setDonorType(i % 4 == 0 ? "restaurant" : "individual");
+        donor.setDonation(donation);
+        donor.setLocation(location);
+        donor.setPosition(new GeoJsonPoint(lng, lat));
+        donor.setCreatedAt(createdAt);
+        return donor;
+    }
+}
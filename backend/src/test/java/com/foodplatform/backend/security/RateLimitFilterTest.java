@@ -0,0 +1,72 @@
+package com.foodplatform.backend.security;
+
+import com.foodplatform.backend.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    // One login per minute
+    private final RateLimiter limiter = new RateLimiter(new RateLimitProperties(true, 1000, Map.of(
+            "login", new RateLimitProperties.Rule("/auth/login", "POST", 1, 1, Duration.ofMinutes(1),
+                    RateLimitProperties.KeyType.IP))),
+            new SimpleMeterRegistry());
+
+    @Test
+    void limitsAPercentEncodedPathLikeThePathItDecodesTo() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(limiter);
+
+        assertThat(servletStatus(filter, "", "/auth/login")).isEqualTo(200);
+        assertThat(servletStatus(filter, "", "/auth/%6cogin")).isEqualTo(429);
+        assertThat(servletStatus(filter, "", "/auth/login;x=1")).isEqualTo(429);
+    }
+
+    @Test
+    void matchesWithinTheContextPath() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(limiter);
+
+        assertThat(servletStatus(filter, "/app", "/app/auth/login")).isEqualTo(200);
+        assertThat(servletStatus(filter, "/app", "/app/auth/%6cogin")).isEqualTo(429);
+    }
+
+    @Test
+    void reactiveFilterDecodesThePathToo() {
+        RateLimitWebFilter filter = new RateLimitWebFilter(limiter);
+
+        assertThat(reactiveStatus(filter, "/auth/login")).isNull();
+        assertThat(reactiveStatus(filter, "/auth/%6cogin")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private static int servletStatus(RateLimitFilter filter, String contextPath, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContextPath(contextPath);
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    // Null when the request was let through
+    private static HttpStatus reactiveStatus(RateLimitWebFilter filter, String uri) {
+        // A URI, not a template: a template would encode the % again
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.POST, URI.create(uri))
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 5000)));
+        filter.filter(exchange, e -> Mono.empty()).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+}
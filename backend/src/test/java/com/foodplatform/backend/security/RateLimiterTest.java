@@ -0,0 +1,62 @@
+package com.foodplatform.backend.security;
+
+import com.foodplatform.backend.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    private RateLimiter limiter() {
+        Map<String, RateLimitProperties.Rule> rules = new LinkedHashMap<>();
+        // Bursts of 3, then one every 20 seconds
+        rules.put("login", new RateLimitProperties.Rule("/auth/login", "POST", 3, 3, Duration.ofMinutes(1),
+                RateLimitProperties.KeyType.IP));
+        rules.put("api", new RateLimitProperties.Rule("/api/**", null, 2, null, Duration.ofMinutes(1),
+                RateLimitProperties.KeyType.USER));
+        return new RateLimiter(new RateLimitProperties(true, 1000, rules), meters, now::get);
+    }
+
+    @Test
+    void allowsABurstThenRefusesUntilATokenIsBack() {
+        RateLimiter limiter = limiter();
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.check("POST", "/auth/login", "10.0.0.1", () -> null).allowed()).isTrue();
+        }
+
+        RateLimiter.Decision refused = limiter.check("POST", "/auth/login", "10.0.0.1", () -> null);
+        assertThat(refused.allowed()).isFalse();
+        assertThat(refused.rule()).isEqualTo("login");
+        assertThat(refused.retryAfter()).isEqualTo(Duration.ofSeconds(20));
+        assertThat(meters.counter("ratelimit.rejected", "rule", "login").count()).isEqualTo(1);
+
+        // Another client has its own bucket; GET doesn't match the rule
+        assertThat(limiter.check("POST", "/auth/login", "10.0.0.2", () -> null).allowed()).isTrue();
+        assertThat(limiter.check("GET", "/auth/login", "10.0.0.1", () -> null).allowed()).isTrue();
+
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+        assertThat(limiter.check("POST", "/auth/login", "10.0.0.1", () -> null).allowed()).isTrue();
+        assertThat(limiter.check("POST", "/auth/login", "10.0.0.1", () -> null).allowed()).isFalse();
+    }
+
+    @Test
+    void limitsSignedInUsersPerUserAndOthersPerAddress() {
+        RateLimiter limiter = limiter();
+        assertThat(limiter.check("GET", "/api/donors", "10.0.0.1", () -> "asha").allowed()).isTrue();
+        assertThat(limiter.check("GET", "/api/donors", "10.0.0.2", () -> "asha").allowed()).isTrue();
+        // Same user from a third address: still the same bucket
+        assertThat(limiter.check("GET", "/api/donors", "10.0.0.3", () -> "asha").allowed()).isFalse();
+
+        // Not signed in: the address's bucket
+        assertThat(limiter.check("GET", "/api/donors", "10.0.0.1", () -> null).allowed()).isTrue();
+    }
+}
@@ -0,0 +1,34 @@
+package com.foodplatform.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DispatchMatcherTest {
+
+    private final DispatchMatcher matcher = new DispatchMatcher(5, 4, 0.01);
+
+    @Test
+    void assignsEachDonationToTheNearestVolunteerWithCapacity() {
+        // Volunteer 0 sits on the first two donations but can only take one of them
+        double[] donationLat = {18.5000, 18.5001, 18.5300};
+        double[] donationLng = {73.8000, 73.8000, 73.8300};
+        double[] volunteerLat = {18.5000, 18.5100, 18.5300};
+        double[] volunteerLng = {73.8000, 73.8000, 73.8300};
+
+        int[] assigned = matcher.match(donationLat, donationLng, volunteerLat, volunteerLng, new int[]{1, 1, 1});
+
+        assertThat(assigned).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void leavesDonationsOutOfRangeOrBeyondCapacityUnassigned() {
+        // The third donation is about 50 km away; the volunteer can take only two
+        double[] donationLat = {18.5000, 18.5010, 18.9500, 18.5020};
+        double[] donationLng = {73.8000, 73.8000, 73.8000, 73.8000};
+
+        int[] assigned = matcher.match(donationLat, donationLng, new double[]{18.5}, new double[]{73.8}, new int[]{2});
+
+        assertThat(assigned).containsExactly(0, 0, DispatchMatcher.UNASSIGNED, DispatchMatcher.UNASSIGNED);
+    }
+}
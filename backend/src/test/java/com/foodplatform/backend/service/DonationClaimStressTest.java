@@ -0,0 +1,109 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.Donation;
+import com.foodplatform.backend.model_temp.DonationStatus;
+import com.foodplatform.backend.model_temp.Donor;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many NGOs claiming the same donations at once, against a real MongoDB. Needs a database, so
+ * it only runs with CLAIM_STRESS_MONGODB_URI set, e.g.
+ * CLAIM_STRESS_MONGODB_URI=mongodb://localhost:27017 mvn test -Dtest=DonationClaimStressTest
+ */
+@EnabledIfEnvironmentVariable(named = "CLAIM_STRESS_MONGODB_URI", matches = ".+")
+class DonationClaimStressTest {
+
+    private static final int DONATIONS = 50;
+    private static final int NGOS = 64;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private DonationLifecycleService lifecycle;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(System.getenv("CLAIM_STRESS_MONGODB_URI"));
+        mongoTemplate = new MongoTemplate(client, "claim_stress_test");
+        mongoTemplate.dropCollection(Donor.class);
+        lifecycle = new DonationLifecycleService(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void everyDonationHasExactlyOneWinner() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < DONATIONS; i++) {
+            Donor donor = new Donor();
+            donor.setDonorName("Donor " + i);
+            Donation donation = new Donation();
+            // Half of them predate statuses and have none
+            if (i % 2 == 0) {
+                donation.setStatus(DonationStatus.AVAILABLE);
+            }
+            donor.setDonation(donation);
+            ids.add(mongoTemplate.insert(donor).getId());
+        }
+
+        Map<String, String> winners = new ConcurrentHashMap<>();
+        Map<String, Integer> wins = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(NGOS);
+        try {
+            List<Future<?>> claims = new ArrayList<>();
+            for (int n = 0; n < NGOS; n++) {
+                String ngo = "ngo-" + n;
+                claims.add(pool.submit(() -> {
+                    start.await();
+                    for (String id : ids) {
+                        if (lifecycle.claim(id, ngo).isPresent()) {
+                            wins.merge(id, 1, Integer::sum);
+                            winners.put(id, ngo);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> claim : claims) {
+                claim.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (String id : ids) {
+            assertThat(wins.get(id)).as("claims won on %s", id).isEqualTo(1);
+            Donation stored = mongoTemplate.findById(id, Donor.class).getDonation();
+            assertThat(stored.getStatus()).isEqualTo(DonationStatus.CLAIMED);
+            assertThat(stored.getClaimedBy()).isEqualTo(winners.get(id));
+        }
+
+        // Only the winner can pick up
+        String id = ids.get(0);
+        assertThat(lifecycle.markPickedUp(id, "someone-else")).isEmpty();
+        assertThat(lifecycle.markPickedUp(id, winners.get(id))).isPresent();
+        assertThat(lifecycle.claim(id, "late-ngo")).isEmpty();
+    }
+}
@@ -0,0 +1,71 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.Donor;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DonationFeedTest {
+
+    @Test
+    void aStalledSubscriberIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch dropped = new CountDownLatch(1);
+        SseEmitter stalled = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                stuck.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void complete() {
+                dropped.countDown();
+            }
+        };
+        Semaphore received = new Semaphore(0);
+        SseEmitter reading = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.release();
+            }
+        };
+        Deque<SseEmitter> emitters = new ArrayDeque<>(List.of(stalled, reading));
+        // Queue of 2: the stalled client is stuck on the first event, holds two more and overflows on the fourth
+        DonationFeed feed = new DonationFeed("local", 256, Duration.ofMinutes(1), Duration.ofHours(1), 10, 2) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return emitters.poll();
+            }
+        };
+        feed.subscribe(DonationFeed.Filter.ALL, null);
+        feed.subscribe(DonationFeed.Filter.ALL, null);
+
+        feed.publish(new Donor());
+        assertThat(stuck.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < 10; i++) {
+            feed.publish(new Donor());
+            assertThat(received.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(dropped.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        release.countDown();
+        feed.shutdown();
+    }
+}
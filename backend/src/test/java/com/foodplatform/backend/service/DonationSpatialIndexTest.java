@@ -0,0 +1,99 @@
+package com.foodplatform.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DonationSpatialIndexTest {
+
+    // Pune, roughly where most donations come from
+    private static final double LAT = 18.52;
+    private static final double LNG = 73.85;
+
+    @Test
+    void radiusAndNearestMatchBruteForce() {
+        Random random = new Random(42);
+        DonationSpatialIndex index = new DonationSpatialIndex(0.01);
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            double lat = LAT + (random.nextDouble() - 0.5) * 0.8;
+            double lng = LNG + (random.nextDouble() - 0.5) * 0.8;
+            points.add(new double[]{lat, lng, i});
+            index.put("d" + i, lat, lng, i);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            double lat = LAT + (random.nextDouble() - 0.5) * 0.6;
+            double lng = LNG + (random.nextDouble() - 0.5) * 0.6;
+
+            List<String> expectedInRadius = bruteForce(points, lat, lng, 3.0, Integer.MAX_VALUE);
+            List<String> inRadius = ids(index.withinRadius(lat, lng, 3.0, Integer.MAX_VALUE));
+            assertEquals(expectedInRadius, inRadius);
+
+            List<String> expectedNearest = bruteForce(points, lat, lng, 50.0, 7);
+            assertEquals(expectedNearest, ids(index.nearest(lat, lng, 7, 50.0)));
+        }
+    }
+
+    @Test
+    void expiredDonationsAreSkipped() {
+        DonationSpatialIndex index = new DonationSpatialIndex(0.01);
+        long now = System.currentTimeMillis();
+        index.put("expired", LAT, LNG, 1, now - 1);
+        index.put("active", LAT + 0.001, LNG, 2, now + 3_600_000);
+        index.put("no-expiry", LAT + 0.002, LNG, 3);
+
+        assertEquals(List.of("active", "no-expiry"), ids(index.nearest(LAT, LNG, 5, 10)));
+        assertEquals(List.of("active", "no-expiry"), ids(index.withinRadius(LAT, LNG, 10, 10)));
+    }
+
+    @Test
+    void removedAndMovedDonationsAreReflected() {
+        DonationSpatialIndex index = new DonationSpatialIndex(0.01);
+        index.put("a", LAT, LNG, 1);
+        index.put("b", LAT + 0.001, LNG, 2);
+        assertEquals(2, index.size());
+
+        assertTrue(index.remove("a"));
+        assertFalse(index.remove("a"));
+        assertEquals(List.of("b"), ids(index.nearest(LAT, LNG, 5, 10)));
+
+        // Re-putting an id moves it instead of duplicating it
+        index.put("b", LAT + 1.0, LNG, 2);
+        assertEquals(1, index.size());
+        assertTrue(index.withinRadius(LAT, LNG, 10, 10).isEmpty());
+        assertEquals(List.of("b"), ids(index.withinRadius(LAT + 1.0, LNG, 1, 10)));
+    }
+
+    @Test
+    void searchesAcrossTheAntimeridian() {
+        DonationSpatialIndex index = new DonationSpatialIndex(0.01);
+        index.put("east", 0.0, 179.999, 1);
+        index.put("west", 0.0, -179.999, 2);
+
+        List<DonationSpatialIndex.Hit> hits = index.withinRadius(0.0, 179.9995, 1.0, 10);
+        assertEquals(List.of("east", "west"), ids(hits));
+        assertEquals(2, index.nearest(0.0, -179.9995, 2, 5).size());
+    }
+
+    private static List<String> bruteForce(List<double[]> points, double lat, double lng, double radiusKm, int limit) {
+        return points.stream()
+                .map(p -> new double[]{DonationSpatialIndex.haversineKm(lat, lng, p[0], p[1]), p[2]})
+                .filter(p -> p[0] <= radiusKm)
+                .sorted(Comparator.comparingDouble(p -> p[0]))
+                .limit(limit)
+                .map(p -> "d" + (int) p[1])
+                .toList();
+    }
+
+    private static List<String> ids(List<DonationSpatialIndex.Hit> hits) {
+        return hits.stream().map(DonationSpatialIndex.Hit::id).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.model_temp.Donor;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageProcessingServiceTest {
+
+    private final ImageProcessingService service = new ImageProcessingService(
+            null, null, null, new SimpleMeterRegistry(), 1, 1, 400, 1600, 0.8f, 50_000_000L);
+
+    @Test
+    void scalesLongestEdgeDownAndNeverUp() {
+        BufferedImage wide = ImageProcessingService.scaleToFit(new BufferedImage(3000, 1000, BufferedImage.TYPE_INT_RGB), 400);
+        assertThat(wide.getWidth()).isEqualTo(400);
+        assertThat(wide.getHeight()).isEqualTo(133);
+
+        BufferedImage small = ImageProcessingService.scaleToFit(new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB), 400);
+        assertThat(small.getWidth()).isEqualTo(120);
+        assertThat(small.getHeight()).isEqualTo(80);
+    }
+
+    @Test
+    void appliesExifRotationAndDropsExif() throws Exception {
+        BufferedImage source = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        source.setRGB(0, 0, Color.RED.getRGB());
+        byte[] jpeg = withExifOrientation(service.encodeJpeg(source), 6);
+
+        BufferedImage decoded = service.decode(new ByteArrayInputStream(jpeg));
+        // Orientation 6 is "rotate 90 degrees clockwise"
+        assertThat(decoded.getWidth()).isEqualTo(20);
+        assertThat(decoded.getHeight()).isEqualTo(40);
+
+        byte[] reencoded = service.encodeJpeg(decoded);
+        assertThat(new String(reencoded, StandardCharsets.ISO_8859_1)).doesNotContain("Exif");
+    }
+
+    @Test
+    void rotatesPixelsToTheRightPlace() {
+        BufferedImage source = new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB);
+        source.setRGB(0, 0, Color.RED.getRGB());
+
+        // Top-left ends up top-right after a clockwise quarter turn
+        BufferedImage rotated = ExifOrientation.apply(source, 6);
+        assertThat(rotated.getRGB(1, 0)).isEqualTo(Color.RED.getRGB());
+        // ... and bottom-left after a counter-clockwise one
+        BufferedImage back = ExifOrientation.apply(source, 8);
+        assertThat(back.getRGB(0, 3)).isEqualTo(Color.RED.getRGB());
+    }
+
+    @Test
+    void removesAnImageWhoseDecoderFailsUnchecked() throws Exception {
+        ImageStore store = mock(ImageStore.class);
+        ImageBlobService blobs = mock(ImageBlobService.class);
+        MongoTemplate mongo = mock(MongoTemplate.class);
+        // What a reader tripping over corrupt data looks like: not an IOException
+        InputStream corrupt = new InputStream() {
+            @Override
+            public int read() {
+                throw new IndexOutOfBoundsException("corrupt segment");
+            }
+        };
+        when(store.load("img")).thenReturn(Optional.of(new InputStreamResource(corrupt)));
+        when(mongo.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Donor.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        ImageProcessingService processing = new ImageProcessingService(
+                store, blobs, mongo, new SimpleMeterRegistry(), 1, 1, 400, 1600, 0.8f, 50_000_000L);
+
+        processing.process("donor", "img");
+
+        // Removed rather than left pending for retryPending to pick up again and again
+        verify(blobs).release("img");
+        processing.shutdown();
+    }
+
+    // Inserts an APP1 Exif segment with just the Orientation tag right after SOI
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8,           // big-endian header, IFD0 at offset 8
+                0, 1,                                  // one entry
+                0x01, 0x12, 0, 3, 0, 0, 0, 1,          // Orientation, SHORT, count 1
+                0, (byte) orientation, 0, 0,
+                0, 0, 0, 0                             // no next IFD
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        int length = 2 + 6 + tiff.length;
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.writeBytes("Exif\0\0".getBytes(StandardCharsets.ISO_8859_1));
+        out.writeBytes(tiff);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,80 @@
+package com.foodplatform.backend.service;
+
+import com.foodplatform.backend.metrics.ImageTraffic;
+import com.foodplatform.backend.model_temp.FoodImage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageUploaderTest {
+
+    private final Map<String, byte[]> stored = new HashMap<>();
+
+    private final ImageStore store = new ImageStore() {
+        @Override
+        public String store(InputStream content, String contentType) throws IOException {
+            String id = "img-" + stored.size();
+            stored.put(id, content.readAllBytes());
+            return id;
+        }
+
+        @Override
+        public Optional<Resource> load(String id) {
+            return Optional.ofNullable(stored.get(id)).map(ByteArrayResource::new);
+        }
+
+        @Override
+        public void delete(String id) {
+            stored.remove(id);
+        }
+    };
+
+    // Every upload is new content here; deduplication itself needs MongoDB
+    private final ImageUploader uploader = new ImageUploader(store, new ImageBlobService(store, null) {
+        @Override
+        public FoodImage acquire(FoodImage image) {
+            return image;
+        }
+    }, new ImageTraffic(new SimpleMeterRegistry()));
+
+    @Test
+    void storesSniffedTypeSizeAndHash() throws Exception {
+        byte[] png = new byte[20_000];
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        System.arraycopy(signature, 0, png, 0, signature.length);
+
+        FoodImage image = uploader.upload(new ByteArrayInputStream(png)).orElseThrow();
+
+        assertThat(image.getContentType()).isEqualTo("image/png");
+        assertThat(image.getSize()).isEqualTo(png.length);
+        assertThat(image.getSha256()).isEqualTo(
+                HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png)));
+        assertThat(stored.get(image.getImageId())).isEqualTo(png);
+    }
+
+    @Test
+    void rejectsWhatIsNotAnImageAndSkipsEmptyFiles() throws Exception {
+        byte[] html = "<html><script>alert(1)</script></html>".getBytes();
+        assertThatThrownBy(() -> uploader.upload(new ByteArrayInputStream(html)))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Recognised, but without an ImageIO plugin it could never be stripped of its EXIF
+        byte[] webp = {'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P'};
+        assertThatThrownBy(() -> uploader.upload(new ByteArrayInputStream(webp)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(uploader.upload(new ByteArrayInputStream(new byte[0]))).isEmpty();
+        assertThat(stored).isEmpty();
+    }
+}
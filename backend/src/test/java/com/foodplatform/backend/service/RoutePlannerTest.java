@@ -0,0 +1,95 @@
+package com.foodplatform.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutePlannerTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // 30 km/h and no time at the stops: 1 km takes 2 minutes
+    private final RoutePlanner planner = new RoutePlanner(30, 0);
+
+    @Test
+    void visitsStopsAlongALineInOrder() {
+        // Stops 1, 2, 3 and 4 km north of the start, given shuffled
+        double[] lat = {18.5 + 3 / 111.2, 18.5 + 1 / 111.2, 18.5 + 4 / 111.2, 18.5 + 2 / 111.2};
+        double[] lng = {73.8, 73.8, 73.8, 73.8};
+        long[] deadlines = new long[4];
+        Arrays.fill(deadlines, NO_DEADLINE);
+
+        assertThat(planner.plan(18.5, 73.8, lat, lng, deadlines, NOW)).containsExactly(1, 3, 0, 2);
+    }
+
+    @Test
+    void goesFirstToAStopThatWouldExpireOtherwise() {
+        // Stop 0 is 1 km north, stop 1 is 3 km south and expires in 8 minutes: going north first
+        // would reach it after 2 + 8 = 10 minutes
+        double[] lat = {18.5 + 1 / 111.2, 18.5 - 3 / 111.2};
+        double[] lng = {73.8, 73.8};
+        long[] deadlines = {NO_DEADLINE, NOW + 8 * 60_000};
+
+        int[] order = planner.plan(18.5, 73.8, lat, lng, deadlines, NOW);
+
+        assertThat(order).containsExactly(1, 0);
+        assertThat(planner.arrivals(18.5, 73.8, lat, lng, order, NOW)[0]).isLessThanOrEqualTo(deadlines[1]);
+    }
+
+    @Test
+    void improvesOnNearestNeighbour() {
+        SplittableRandom random = new SplittableRandom(3);
+        int n = 50;
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        long[] deadlines = new long[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 18.5 + random.nextDouble() * 0.1;
+            lng[i] = 73.8 + random.nextDouble() * 0.1;
+            deadlines[i] = NO_DEADLINE;
+        }
+
+        int[] order = planner.plan(18.55, 73.85, lat, lng, deadlines, NOW);
+
+        assertThat(order).containsExactlyInAnyOrder(IntStream.range(0, n).toArray());
+        assertThat(length(order, lat, lng)).isLessThan(length(nearestNeighbour(lat, lng), lat, lng));
+    }
+
+    private static double length(int[] order, double[] lat, double[] lng) {
+        double total = 0;
+        double fromLat = 18.55;
+        double fromLng = 73.85;
+        for (int stop : order) {
+            total += DonationSpatialIndex.haversineKm(fromLat, fromLng, lat[stop], lng[stop]);
+            fromLat = lat[stop];
+            fromLng = lng[stop];
+        }
+        return total;
+    }
+
+    private static int[] nearestNeighbour(double[] lat, double[] lng) {
+        int[] order = new int[lat.length];
+        boolean[] visited = new boolean[lat.length];
+        double fromLat = 18.55;
+        double fromLng = 73.85;
+        for (int i = 0; i < order.length; i++) {
+            int best = -1;
+            for (int s = 0; s < lat.length; s++) {
+                if (!visited[s] && (best < 0 || DonationSpatialIndex.haversineKm(fromLat, fromLng, lat[s], lng[s])
+                        < DonationSpatialIndex.haversineKm(fromLat, fromLng, lat[best], lng[best]))) {
+                    best = s;
+                }
+            }
+            order[i] = best;
+            visited[best] = true;
+            fromLat = lat[best];
+            fromLng = lng[best];
+        }
+        return order;
+    }
+}
@@ -125,6 +125,76 @@ const NGODashboard = () => {
     }
   }, [activeTab, token, authLoading]);
 
+  // Live feed: new donations are pushed by the server instead of re-downloading the list.
+  // fetch() rather than EventSource, because EventSource can't send the Authorization header.
+  useEffect(() => {
+    if (authLoading || !token || activeTab !== "donors") return;
+
+    const controller = new AbortController();
+    let lastEventId = null;
+    let retryTimer = null;
+
+    const handleEvent = (raw) => {
+      let name = "message", id = null, data = "";
+      for (const line of raw.split("\n")) {
+        if (line.startsWith("event:")) name = line.slice(6).trim();
+        else if (line.startsWith("id:")) id = line.slice(3).trim();
+        else if (line.startsWith("data:")) data += line.slice(5).trim();
+      }
+      if (id) lastEventId = id;
+      if (name === "donation" && data) {
+        const donor = JSON.parse(data);
+        setDonors(prev => prev.some(d => d._id === donor._id) ? prev : [donor, ...prev]);
+      } else if (name === "reset") {
+        // Missed too much while disconnected: pick up the current list once
+        fetch(`${BACKEND_URL}/api/donors`, { headers: { Authorization: `Bearer ${token}` } })
+          .then(res => res.ok ? res.json() : null)
+          .then(data => {
+            if (Array.isArray(data)) {
+              setDonors([...data].sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt)));
+            }
+          })
+          .catch(() => {});
+      }
+    };
+
+    const connect = async () => {
+      try {
+        const headers = { Authorization: `Bearer ${token}` };
+        if (lastEventId) headers["Last-Event-ID"] = lastEventId;
+        const response = await fetch(`${BACKEND_URL}/api/donors/stream`, {
+          headers,
+          signal: controller.signal,
+        });
+        if (!response.ok || !response.body) throw new Error("feed unavailable");
+
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = "";
+        while (true) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value;
+          let boundary;
+          while ((boundary = buffer.indexOf("\n\n")) >= 0) {
+            handleEvent(buffer.slice(0, boundary));
+            buffer = buffer.slice(boundary + 2);
+          }
+        }
+      } catch (err) {
+        if (controller.signal.aborted) return;
+      }
+      if (!controller.signal.aborted) {
+        retryTimer = setTimeout(connect, 5000);
+      }
+    };
+
+    connect();
+    return () => {
+      controller.abort();
+      clearTimeout(retryTimer);
+    };
+  }, [activeTab, token, authLoading]);
+
   useEffect(() => {
     setExpandedIndices({});
   }, [activeTab]);
@@ -316,9 +386,10 @@ const DonorCard = ({ donor, expanded, onExpand }) => (
               <div className="col-span-1">
                  <h4 className="text-xs font-bold text-slate-400 uppercase tracking-wider mb-2">Verification</h4>
                  <div className="aspect-video w-full rounded-2xl overflow-hidden bg-slate-200 relative border border-slate-200">
-                    {donor.donation?.foodImage?.image ? (
+                    {donor.donation?.foodImage?.url ? (
                         <img 
-                           src={`data:${donor.donation.foodImage.contentType};base64,${donor.donation.foodImage.image}`} 
+                           src={`${process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080"}${donor.donation.foodImage.thumbnailUrl || donor.donation.foodImage.url}`} 
+                           loading="lazy"
                            alt="Donation" 
                            className="w-full h-full object-cover" 
                         />